@@ -0,0 +1,32 @@
+package com.rnappauth.benchmark;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.rnappauth.utils.ArrayUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Joining the scopes of every authorize, refresh and prefetch call.
+ */
+@State(Scope.Thread)
+public class ArrayUtilBenchmark {
+
+    @Param({ "1", "4", "12" })
+    public int scopeCount;
+
+    private ReadableArray scopes;
+
+    @Setup
+    public void setUp() {
+        scopes = BenchmarkInputs.createScopes(scopeCount);
+    }
+
+    @Benchmark
+    public String arrayToString() {
+        return ArrayUtil.arrayToString(scopes);
+    }
+}
@@ -0,0 +1,60 @@
+package com.rnappauth.benchmark;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inputs shaped like what identity providers and apps send. Sizes are chosen per benchmark with
+ * JMH parameters: none, a typical handful, and the long tail.
+ */
+final class BenchmarkInputs {
+
+    private static final String[] SCOPES = {
+            "openid", "profile", "email", "offline_access", "address", "phone",
+            "api://orders/read", "api://orders/write", "api://billing/read",
+            "api://billing/write", "api://reports/read", "api://admin",
+    };
+
+    static JavaOnlyArray createScopes(int count) {
+        JavaOnlyArray scopes = new JavaOnlyArray();
+        for (int i = 0; i < count; i++) {
+            scopes.pushString(SCOPES[i % SCOPES.length]);
+        }
+        return scopes;
+    }
+
+    static String createScopeString(int count) {
+        StringBuilder scope = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            scope.append(i != 0 ? " " : "").append(SCOPES[i % SCOPES.length]);
+        }
+        return scope.toString();
+    }
+
+    static Map<String, String> createParameters(int count) {
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            parameters.put("parameter_" + i, "value-" + i + "-0123456789abcdef");
+        }
+        return parameters;
+    }
+
+    static JavaOnlyMap createReadableMap(int count) {
+        JavaOnlyMap map = new JavaOnlyMap();
+        for (Map.Entry<String, String> parameter : createParameters(count).entrySet()) {
+            map.putString(parameter.getKey(), parameter.getValue());
+        }
+        return map;
+    }
+
+    static String createToken(int length) {
+        StringBuilder token = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            token.append((char) ('a' + i % 26));
+        }
+        return token.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.rnappauth.benchmark;
+
+import android.net.Uri;
+
+import com.rnappauth.utils.CustomConnectionBuilder;
+
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Applying custom headers to each connection. The wrapped builder returns a connection that
+ * never connects, so only the header application is measured.
+ */
+@State(Scope.Thread)
+public class CustomConnectionBuilderBenchmark {
+
+    @Param({ "0", "2", "8" })
+    public int headerCount;
+
+    private CustomConnectionBuilder connectionBuilder;
+    private Uri uri;
+
+    @Setup
+    public void setUp() throws IOException {
+        final URL url = new URL("https://idp.example.com/oauth2/token");
+        connectionBuilder = new CustomConnectionBuilder(new ConnectionBuilder() {
+            @Override
+            public HttpURLConnection openConnection(Uri uri) {
+                return new UnconnectedConnection(url);
+            }
+        });
+        if (headerCount > 0) {
+            connectionBuilder.setHeaders(BenchmarkInputs.createParameters(headerCount));
+        }
+        uri = Uri.parse(url.toString());
+    }
+
+    @Benchmark
+    public HttpURLConnection openConnection() throws IOException {
+        return connectionBuilder.openConnection(uri);
+    }
+
+    private static final class UnconnectedConnection extends HttpURLConnection {
+
+        UnconnectedConnection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+}
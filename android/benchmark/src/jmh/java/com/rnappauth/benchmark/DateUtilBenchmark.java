@@ -0,0 +1,32 @@
+package com.rnappauth.benchmark;
+
+import com.rnappauth.utils.DateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Formatting accessTokenExpirationDate for every token response. The second timestamp lies
+ * before the Gregorian cutover and takes the SimpleDateFormat fallback.
+ */
+@State(Scope.Thread)
+public class DateUtilBenchmark {
+
+    @Param({ "1700000000000", "-62135596800000" })
+    public long timestamp;
+
+    private Long boxedTimestamp;
+
+    @Setup
+    public void setUp() {
+        boxedTimestamp = timestamp;
+    }
+
+    @Benchmark
+    public String formatTimestamp() {
+        return DateUtil.formatTimestamp(boxedTimestamp);
+    }
+}
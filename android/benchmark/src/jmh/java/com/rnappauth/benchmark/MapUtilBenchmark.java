@@ -0,0 +1,34 @@
+package com.rnappauth.benchmark;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.rnappauth.utils.MapUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+
+/**
+ * Copying additionalParameters and headers from JS into Java maps.
+ */
+@State(Scope.Thread)
+public class MapUtilBenchmark {
+
+    @Param({ "0", "4", "16" })
+    public int entryCount;
+
+    private ReadableMap readableMap;
+
+    @Setup
+    public void setUp() {
+        readableMap = BenchmarkInputs.createReadableMap(entryCount);
+    }
+
+    @Benchmark
+    public HashMap<String, String> readableMapToHashMap() {
+        return MapUtil.readableMapToHashMap(readableMap);
+    }
+}
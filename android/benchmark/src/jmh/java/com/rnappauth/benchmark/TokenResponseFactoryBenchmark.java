@@ -0,0 +1,55 @@
+package com.rnappauth.benchmark;
+
+import com.facebook.react.bridge.WritableMap;
+import com.rnappauth.utils.TokenResponseFactory;
+
+import net.openid.appauth.AuthorizationResponse;
+import net.openid.appauth.TokenResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Marshalling token responses for JS, after a refresh and after a code exchange.
+ */
+@State(Scope.Thread)
+public class TokenResponseFactoryBenchmark {
+
+    @Param({ "0", "4", "16" })
+    public int additionalParameterCount;
+
+    @Param({ "1", "4", "12" })
+    public int scopeCount;
+
+    private TokenResponse tokenResponse;
+    private AuthorizationResponse authorizationResponse;
+
+    @Setup
+    public void setUp() {
+        tokenResponse = new TokenResponse(
+                "Bearer",
+                BenchmarkInputs.createToken(900),
+                1700000000000L,
+                BenchmarkInputs.createToken(1200),
+                BenchmarkInputs.createToken(64),
+                BenchmarkInputs.createParameters(additionalParameterCount)
+        );
+        authorizationResponse = new AuthorizationResponse(
+                BenchmarkInputs.createScopeString(scopeCount),
+                BenchmarkInputs.createParameters(additionalParameterCount)
+        );
+    }
+
+    @Benchmark
+    public WritableMap refreshResponseToMap() {
+        return TokenResponseFactory.tokenResponseToMap(tokenResponse, false);
+    }
+
+    @Benchmark
+    public WritableMap authorizeResponseToMap() {
+        return TokenResponseFactory.tokenResponseToMap(tokenResponse, authorizationResponse, false);
+    }
+}
@@ -0,0 +1,27 @@
+package com.facebook.react.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for React Native's array of the same name, backed by an ArrayList.
+ */
+public class JavaOnlyArray implements WritableArray {
+
+    private final List<String> backingList = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return backingList.size();
+    }
+
+    @Override
+    public String getString(int index) {
+        return backingList.get(index);
+    }
+
+    @Override
+    public void pushString(String value) {
+        backingList.add(value);
+    }
+}
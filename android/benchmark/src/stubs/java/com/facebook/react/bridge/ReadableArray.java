@@ -0,0 +1,8 @@
+package com.facebook.react.bridge;
+
+public interface ReadableArray {
+
+    int size();
+
+    String getString(int index);
+}
@@ -0,0 +1,10 @@
+package com.facebook.react.bridge;
+
+public interface ReadableMap {
+
+    boolean hasKey(String name);
+
+    String getString(String name);
+
+    ReadableMapKeySetIterator keySetIterator();
+}
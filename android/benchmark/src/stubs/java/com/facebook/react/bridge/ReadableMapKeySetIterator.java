@@ -0,0 +1,8 @@
+package com.facebook.react.bridge;
+
+public interface ReadableMapKeySetIterator {
+
+    boolean hasNextKey();
+
+    String nextKey();
+}
@@ -0,0 +1,6 @@
+package com.facebook.react.bridge;
+
+public interface WritableArray extends ReadableArray {
+
+    void pushString(String value);
+}
@@ -0,0 +1,12 @@
+package com.facebook.react.bridge;
+
+public interface WritableMap extends ReadableMap {
+
+    void putString(String key, String value);
+
+    void putDouble(String key, double value);
+
+    void putArray(String key, WritableArray value);
+
+    void putMap(String key, WritableMap value);
+}
@@ -0,0 +1,17 @@
+package net.openid.appauth;
+
+import java.util.Map;
+
+/**
+ * JVM stand-in for AppAuth's authorization response, with the fields the library reads.
+ */
+public class AuthorizationResponse {
+
+    public final String scope;
+    public final Map<String, String> additionalParameters;
+
+    public AuthorizationResponse(String scope, Map<String, String> additionalParameters) {
+        this.scope = scope;
+        this.additionalParameters = additionalParameters;
+    }
+}
@@ -0,0 +1,32 @@
+package net.openid.appauth;
+
+import java.util.Map;
+
+/**
+ * JVM stand-in for AppAuth's token response, with the fields the library reads.
+ */
+public class TokenResponse {
+
+    public final String tokenType;
+    public final String accessToken;
+    public final Long accessTokenExpirationTime;
+    public final String idToken;
+    public final String refreshToken;
+    public final Map<String, String> additionalParameters;
+
+    public TokenResponse(
+            String tokenType,
+            String accessToken,
+            Long accessTokenExpirationTime,
+            String idToken,
+            String refreshToken,
+            Map<String, String> additionalParameters
+    ) {
+        this.tokenType = tokenType;
+        this.accessToken = accessToken;
+        this.accessTokenExpirationTime = accessTokenExpirationTime;
+        this.idToken = idToken;
+        this.refreshToken = refreshToken;
+        this.additionalParameters = additionalParameters;
+    }
+}
@@ -0,0 +1,536 @@
+package com.rnappauth;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.Nullable;
+
+import com.rnappauth.utils.EncryptedStore;
+import com.rnappauth.utils.ExecutorUtil;
+
+import net.openid.appauth.AuthorizationException;
+import net.openid.appauth.AuthorizationService;
+import net.openid.appauth.ClientAuthentication;
+import net.openid.appauth.NoClientAuthentication;
+import net.openid.appauth.TokenResponse;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one {@link AccountSession} per signed-in account. Every account is written through to an
+ * {@link EncryptedStore} when it is added and whenever its tokens are refreshed, so all of them
+ * survive process death. The most recently used accounts also stay in memory and have their tokens
+ * refreshed ahead of expiry; the rest are dropped from memory and loaded back on demand. Without
+ * an encrypted store (before API 23) accounts are only kept in memory. With a
+ * {@link SharedAuthStateStore} enabled, accounts live in the store instead and every process of
+ * the app sees the same tokens.
+ */
+final class AccountRegistry {
+
+    interface RefreshCallback {
+        void onRefreshCompleted(@Nullable AccountSession session, @Nullable AuthorizationException ex);
+    }
+
+    interface Listener {
+        /*
+         * Called on the main thread when an account's tokens were replaced natively, by a refresh
+         * or by another process, so JS never keeps using a rotated refresh token
+         */
+        void onTokensRefreshed(AccountSession session);
+    }
+
+    static final int DEFAULT_MAX_HOT_ACCOUNTS = 5;
+
+    private static final String TAG = "RNAppAuthAccounts";
+    private static final String STORE_NAME = "RNAppAuthAccounts";
+    private static final long REFRESH_MARGIN_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_SHARED_REFRESH_CONCURRENCY = 2;
+
+    private final Context context;
+    private final int maxHotAccounts;
+    private final Listener listener;
+    @Nullable private final EncryptedStore coldStore;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // access ordered, so iteration starts at the least recently used account
+    private final LinkedHashMap<String, AccountSession> hotAccounts = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, List<RefreshCallback>> pendingRefreshes = new HashMap<>();
+    @Nullable private String activeAccountId;
+    @Nullable private SharedAuthStateStore sharedStore;
+    @Nullable private ThreadPoolExecutor sharedRefreshExecutor;
+
+    AccountRegistry(Context context, int maxHotAccounts, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.maxHotAccounts = maxHotAccounts;
+        this.listener = listener;
+        // without an encrypted store accounts are never evicted, only kept in memory
+        this.coldStore = EncryptedStore.isSupported() ? new EncryptedStore(this.context, STORE_NAME) : null;
+    }
+
+    /*
+     * Share accounts with the other processes of the app from now on. Accounts already held here
+     * are published, unless another process stored the account first
+     */
+    void enableSharedState(SharedAuthStateStore store) {
+        List<AccountSession> held;
+        synchronized (this) {
+            if (sharedStore != null) {
+                return;
+            }
+
+            sharedStore = store;
+            sharedRefreshExecutor = ExecutorUtil.newBoundedExecutor("RNAppAuth-shared-refresh-", MAX_SHARED_REFRESH_CONCURRENCY);
+            held = new ArrayList<>(hotAccounts.values());
+        }
+
+        for (AccountSession session : held) {
+            AccountSession kept = session;
+            boolean shared = false;
+            try {
+                kept = share(store, session);
+                shared = true;
+            } catch (IOException | GeneralSecurityException | JSONException e) {
+                Log.w(TAG, "Failed to share account " + session.accountId, e);
+            }
+
+            synchronized (this) {
+                kept.persisted = shared;
+                if (kept != session && peek(session.accountId) == session) {
+                    putInMemory(kept);
+                }
+            }
+        }
+
+        store.startWatching(new SharedAuthStateStore.Listener() {
+            @Override
+            public void onAccountChanged(String accountId) {
+                reloadSharedAccount(accountId);
+            }
+        });
+    }
+
+    /*
+     * Register the account and return the session that is kept for it. With shared state, a
+     * stored session whose tokens differ wins over the given one, as those tokens may already have
+     * been rotated by another process. Blocks while another process refreshes the account
+     */
+    AccountSession put(AccountSession session) {
+        SharedAuthStateStore store;
+        synchronized (this) {
+            store = sharedStore;
+            if (store == null) {
+                persist(session);
+                putInMemory(session);
+                return session;
+            }
+        }
+
+        AccountSession kept = session;
+        boolean shared = false;
+        try {
+            kept = share(store, session);
+            shared = true;
+        } catch (IOException | GeneralSecurityException | JSONException e) {
+            Log.w(TAG, "Failed to share account " + session.accountId, e);
+        }
+
+        synchronized (this) {
+            kept.persisted = shared;
+            putInMemory(kept);
+        }
+        return kept;
+    }
+
+    /*
+     * Write the account to the shared store under its lock and return the session to keep, which
+     * is the stored one if another process holds other tokens for it. The account lock is taken
+     * before this registry's, in the same order as refreshShared, so never call this holding it
+     */
+    private static AccountSession share(SharedAuthStateStore store, AccountSession session)
+            throws IOException, GeneralSecurityException, JSONException {
+        SharedAuthStateStore.Lock lock = store.lock(session.accountId);
+        try {
+            AccountSession stored = store.read(session.accountId);
+            if (stored != null && !isSameAccessToken(stored, session)) {
+                return stored;
+            }
+            store.write(session);
+            return session;
+        } finally {
+            lock.release();
+        }
+    }
+
+    private void putInMemory(AccountSession session) {
+        AccountSession previous = hotAccounts.put(session.accountId, session);
+        if (previous != null) {
+            cancelScheduledRefresh(previous);
+        }
+        scheduleRefresh(session);
+        evictColdAccounts();
+    }
+
+    /*
+     * Return the in-memory session, loading it back from encrypted storage if it was evicted
+     */
+    @Nullable
+    synchronized AccountSession get(String accountId) {
+        AccountSession session = hotAccounts.get(accountId);
+        if (session != null) {
+            return session;
+        }
+
+        if (sharedStore != null) {
+            try {
+                session = sharedStore.read(accountId);
+            } catch (IOException | GeneralSecurityException | JSONException e) {
+                Log.w(TAG, "Failed to load shared account " + accountId, e);
+                return null;
+            }
+            if (session != null) {
+                session.persisted = true;
+                putInMemory(session);
+            }
+            return session;
+        }
+
+        if (coldStore == null) {
+            return null;
+        }
+
+        try {
+            String json = coldStore.get(accountId);
+            if (json == null) {
+                return null;
+            }
+            session = AccountSession.jsonDeserialize(accountId, json);
+        } catch (GeneralSecurityException | JSONException e) {
+            Log.w(TAG, "Failed to load account " + accountId, e);
+            return null;
+        }
+
+        // the stored copy stays, it is what survives process death
+        session.persisted = true;
+        putInMemory(session);
+        return session;
+    }
+
+    /*
+     * Write the account through to encrypted storage. Accounts that could not be written are
+     * never dropped from memory
+     */
+    private void persist(AccountSession session) {
+        if (coldStore == null) {
+            return;
+        }
+
+        try {
+            coldStore.put(session.accountId, session.jsonSerializeString());
+            session.persisted = true;
+        } catch (GeneralSecurityException e) {
+            Log.w(TAG, "Failed to persist account " + session.accountId, e);
+            session.persisted = false;
+        }
+    }
+
+    synchronized void remove(String accountId) {
+        AccountSession session = hotAccounts.remove(accountId);
+        if (session != null) {
+            cancelScheduledRefresh(session);
+        }
+        if (coldStore != null) {
+            coldStore.remove(accountId);
+        }
+        if (sharedStore != null) {
+            sharedStore.remove(accountId);
+        }
+        if (accountId.equals(activeAccountId)) {
+            activeAccountId = null;
+        }
+    }
+
+    synchronized void setActiveAccountId(@Nullable String accountId) {
+        activeAccountId = accountId;
+    }
+
+    @Nullable
+    synchronized String getActiveAccountId() {
+        return activeAccountId;
+    }
+
+    /*
+     * Refresh the account's tokens, sharing a single token request between concurrent callers
+     */
+    void refresh(final String accountId, final RefreshCallback callback) {
+        final AccountSession session;
+        synchronized (this) {
+            List<RefreshCallback> pending = pendingRefreshes.get(accountId);
+            if (pending != null) {
+                pending.add(callback);
+                return;
+            }
+
+            session = get(accountId);
+            if (session != null) {
+                pending = new ArrayList<>();
+                pending.add(callback);
+                pendingRefreshes.put(accountId, pending);
+            }
+        }
+
+        if (session == null) {
+            callback.onRefreshCompleted(null, null);
+            return;
+        }
+
+        if (sharedStore != null) {
+            refreshShared(session, sharedStore);
+            return;
+        }
+
+        final AuthorizationService authService = new AuthorizationService(
+                context,
+                RNAppAuthModule.createAppAuthConfiguration(
+                        RNAppAuthModule.createConnectionBuilder(session.dangerouslyAllowInsecureHttpRequests, session.tokenHeaders)
+                )
+        );
+
+        AuthorizationService.TokenResponseCallback tokenResponseCallback = new AuthorizationService.TokenResponseCallback() {
+            @Override
+            public void onTokenRequestCompleted(@Nullable TokenResponse response, @Nullable AuthorizationException ex) {
+                authService.dispose();
+
+                synchronized (AccountRegistry.this) {
+                    session.authState.update(response, ex);
+                    if (response != null && sharedStore == null) {
+                        persist(session);
+                    }
+                }
+                completeRefresh(accountId, response != null ? session : null, ex);
+            }
+        };
+
+        if (session.clientSecret != null) {
+            authService.performTokenRequest(
+                    session.createTokenRefreshRequest(),
+                    RNAppAuthModule.getClientAuthentication(session.clientSecret, session.clientAuthMethod),
+                    tokenResponseCallback
+            );
+        } else {
+            authService.performTokenRequest(session.createTokenRefreshRequest(), tokenResponseCallback);
+        }
+    }
+
+    /*
+     * Refresh while holding the account's lock across processes. If the stored access token is no
+     * longer the one this process holds, another process refreshed first and its tokens are used
+     * instead, so each expiry costs one token request however many processes notice it
+     */
+    private void refreshShared(final AccountSession session, final SharedAuthStateStore store) {
+        sharedRefreshExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                AccountSession refreshed = null;
+                AuthorizationException exception = null;
+                try {
+                    SharedAuthStateStore.Lock lock = store.lock(session.accountId);
+                    try {
+                        AccountSession stored = store.read(session.accountId);
+                        if (stored != null && !isSameAccessToken(stored, session)) {
+                            stored.persisted = true;
+                            refreshed = stored;
+                        } else {
+                            AccountSession current = stored != null ? stored : session;
+                            ClientAuthentication clientAuth = current.clientSecret != null
+                                    ? RNAppAuthModule.getClientAuthentication(current.clientSecret, current.clientAuthMethod)
+                                    : NoClientAuthentication.INSTANCE;
+                            TokenResponse response = BulkRefreshExecutor.performTokenRequest(
+                                    current.createTokenRefreshRequest(),
+                                    clientAuth,
+                                    RNAppAuthModule.createConnectionBuilder(current.dangerouslyAllowInsecureHttpRequests, current.tokenHeaders)
+                            );
+                            synchronized (AccountRegistry.this) {
+                                current.authState.update(response, null);
+                                current.persisted = false;
+                            }
+                            store.write(current);
+                            synchronized (AccountRegistry.this) {
+                                current.persisted = true;
+                            }
+                            refreshed = current;
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                } catch (AuthorizationException e) {
+                    exception = e;
+                } catch (IOException | GeneralSecurityException | JSONException e) {
+                    // AppAuth has no error for local storage, the shared state could not be read or written
+                    exception = AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.JSON_DESERIALIZATION_ERROR, e);
+                }
+
+                final AccountSession result = refreshed;
+                final AuthorizationException error = exception;
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (result != null) {
+                            synchronized (AccountRegistry.this) {
+                                if (peek(result.accountId) != result) {
+                                    putInMemory(result);
+                                }
+                            }
+                        }
+                        completeRefresh(session.accountId, result, error);
+                    }
+                });
+            }
+        });
+    }
+
+    private void completeRefresh(String accountId, @Nullable AccountSession refreshed, @Nullable AuthorizationException ex) {
+        List<RefreshCallback> waiting;
+        synchronized (this) {
+            waiting = pendingRefreshes.remove(accountId);
+            if (refreshed != null && hotAccounts.containsKey(accountId)) {
+                scheduleRefresh(refreshed);
+            }
+        }
+
+        if (refreshed != null) {
+            listener.onTokensRefreshed(refreshed);
+        }
+        for (RefreshCallback waitingCallback : waiting) {
+            waitingCallback.onRefreshCompleted(refreshed, ex);
+        }
+    }
+
+    /*
+     * Pick up tokens another process wrote for an account held in memory here. Writes made by
+     * this process carry the tokens it already holds and are ignored
+     */
+    private void reloadSharedAccount(String accountId) {
+        SharedAuthStateStore store;
+        AccountSession held;
+        synchronized (this) {
+            store = sharedStore;
+            held = peek(accountId);
+        }
+        if (store == null || held == null) {
+            return;
+        }
+
+        AccountSession stored;
+        try {
+            stored = store.read(accountId);
+        } catch (IOException | GeneralSecurityException | JSONException e) {
+            Log.w(TAG, "Failed to reload shared account " + accountId, e);
+            return;
+        }
+
+        synchronized (this) {
+            if (stored == null) {
+                AccountSession removed = hotAccounts.remove(accountId);
+                if (removed != null) {
+                    cancelScheduledRefresh(removed);
+                }
+            } else if (peek(accountId) == held && !isSameAccessToken(stored, held)) {
+                stored.persisted = true;
+                putInMemory(stored);
+                notifyTokensRefreshed(stored);
+            }
+        }
+    }
+
+    private void notifyTokensRefreshed(final AccountSession session) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onTokensRefreshed(session);
+            }
+        });
+    }
+
+    /*
+     * Look up an in-memory account without counting it as used
+     */
+    @Nullable
+    private AccountSession peek(String accountId) {
+        for (AccountSession session : hotAccounts.values()) {
+            if (session.accountId.equals(accountId)) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameAccessToken(AccountSession a, AccountSession b) {
+        String accessToken = a.authState.getAccessToken();
+        return accessToken != null ? accessToken.equals(b.authState.getAccessToken()) : b.authState.getAccessToken() == null;
+    }
+
+    private void scheduleRefresh(final AccountSession session) {
+        cancelScheduledRefresh(session);
+
+        Long expirationTime = session.authState.getAccessTokenExpirationTime();
+        if (expirationTime == null || session.authState.getRefreshToken() == null) {
+            return;
+        }
+
+        session.scheduledRefresh = new Runnable() {
+            @Override
+            public void run() {
+                refresh(session.accountId, new RefreshCallback() {
+                    @Override
+                    public void onRefreshCompleted(@Nullable AccountSession refreshed, @Nullable AuthorizationException ex) {
+                        if (ex != null) {
+                            Log.w(TAG, "Failed to refresh account " + session.accountId, ex);
+                        }
+                    }
+                });
+            }
+        };
+        long delay = Math.max(0, expirationTime - REFRESH_MARGIN_MS - System.currentTimeMillis());
+        handler.postDelayed(session.scheduledRefresh, delay);
+    }
+
+    private void cancelScheduledRefresh(AccountSession session) {
+        if (session.scheduledRefresh != null) {
+            handler.removeCallbacks(session.scheduledRefresh);
+            session.scheduledRefresh = null;
+        }
+    }
+
+    private void evictColdAccounts() {
+        if (coldStore == null && sharedStore == null) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, AccountSession>> iterator = hotAccounts.entrySet().iterator();
+        while (hotAccounts.size() > maxHotAccounts && iterator.hasNext()) {
+            AccountSession session = iterator.next().getValue();
+            if (session.accountId.equals(activeAccountId) || pendingRefreshes.containsKey(session.accountId)) {
+                continue;
+            }
+
+            // stored accounts only have to leave memory, the others would be lost
+            if (!session.persisted) {
+                continue;
+            }
+            cancelScheduledRefresh(session);
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.rnappauth;
+
+import androidx.annotation.Nullable;
+
+import net.openid.appauth.AuthState;
+import net.openid.appauth.TokenRequest;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The {@link AuthState} of one signed-in account, together with the client settings needed to
+ * refresh its tokens without another round trip to JS.
+ */
+final class AccountSession {
+
+    private static final String KEY_AUTH_STATE = "authState";
+    private static final String KEY_CLIENT_ID = "clientId";
+    private static final String KEY_REDIRECT_URL = "redirectUrl";
+    private static final String KEY_CLIENT_SECRET = "clientSecret";
+    private static final String KEY_CLIENT_AUTH_METHOD = "clientAuthMethod";
+    private static final String KEY_SCOPES = "scopes";
+    private static final String KEY_ADDITIONAL_PARAMETERS = "additionalParameters";
+    private static final String KEY_ALLOW_INSECURE = "dangerouslyAllowInsecureHttpRequests";
+    private static final String KEY_TOKEN_HEADERS = "tokenHeaders";
+
+    final String accountId;
+    final AuthState authState;
+    final String clientId;
+    final String redirectUrl;
+    @Nullable final String clientSecret;
+    final String clientAuthMethod;
+    @Nullable final String scopes;
+    final Map<String, String> additionalParameters;
+    final boolean dangerouslyAllowInsecureHttpRequests;
+    @Nullable final Map<String, String> tokenHeaders;
+
+    // pending proactive refresh, only set while the account is held in memory
+    @Nullable Runnable scheduledRefresh;
+    // whether the current tokens are in encrypted storage, guarded by the AccountRegistry
+    boolean persisted;
+
+    AccountSession(
+            String accountId,
+            AuthState authState,
+            String clientId,
+            String redirectUrl,
+            @Nullable String clientSecret,
+            String clientAuthMethod,
+            @Nullable String scopes,
+            Map<String, String> additionalParameters,
+            boolean dangerouslyAllowInsecureHttpRequests,
+            @Nullable Map<String, String> tokenHeaders
+    ) {
+        this.accountId = accountId;
+        this.authState = authState;
+        this.clientId = clientId;
+        this.redirectUrl = redirectUrl;
+        this.clientSecret = clientSecret;
+        this.clientAuthMethod = clientAuthMethod;
+        this.scopes = scopes;
+        this.additionalParameters = additionalParameters;
+        this.dangerouslyAllowInsecureHttpRequests = dangerouslyAllowInsecureHttpRequests;
+        this.tokenHeaders = tokenHeaders;
+    }
+
+    /*
+     * Build a refresh_token grant request from the account's current state
+     */
+    TokenRequest createTokenRefreshRequest() {
+        return RNAppAuthModule.createRefreshTokenRequest(
+                authState.getAuthorizationServiceConfiguration(),
+                authState.getRefreshToken(),
+                clientId,
+                scopes,
+                redirectUrl,
+                additionalParameters
+        );
+    }
+
+    String jsonSerializeString() {
+        try {
+            JSONObject json = new JSONObject();
+            json.put(KEY_AUTH_STATE, authState.jsonSerializeString());
+            json.put(KEY_CLIENT_ID, clientId);
+            json.put(KEY_REDIRECT_URL, redirectUrl);
+            json.put(KEY_CLIENT_SECRET, clientSecret);
+            json.put(KEY_CLIENT_AUTH_METHOD, clientAuthMethod);
+            json.put(KEY_SCOPES, scopes);
+            json.put(KEY_ADDITIONAL_PARAMETERS, new JSONObject(additionalParameters));
+            json.put(KEY_ALLOW_INSECURE, dangerouslyAllowInsecureHttpRequests);
+            if (tokenHeaders != null) {
+                json.put(KEY_TOKEN_HEADERS, new JSONObject(tokenHeaders));
+            }
+            return json.toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException("Failed to serialize account " + accountId, e);
+        }
+    }
+
+    static AccountSession jsonDeserialize(String accountId, String jsonString) throws JSONException {
+        JSONObject json = new JSONObject(jsonString);
+        return new AccountSession(
+                accountId,
+                AuthState.jsonDeserialize(json.getString(KEY_AUTH_STATE)),
+                json.getString(KEY_CLIENT_ID),
+                json.getString(KEY_REDIRECT_URL),
+                optString(json, KEY_CLIENT_SECRET),
+                json.getString(KEY_CLIENT_AUTH_METHOD),
+                optString(json, KEY_SCOPES),
+                toStringMap(json.optJSONObject(KEY_ADDITIONAL_PARAMETERS)),
+                json.optBoolean(KEY_ALLOW_INSECURE),
+                json.has(KEY_TOKEN_HEADERS) ? toStringMap(json.optJSONObject(KEY_TOKEN_HEADERS)) : null
+        );
+    }
+
+    @Nullable
+    private static String optString(JSONObject json, String key) {
+        return json.has(key) && !json.isNull(key) ? json.optString(key) : null;
+    }
+
+    private static Map<String, String> toStringMap(@Nullable JSONObject json) {
+        HashMap<String, String> map = new HashMap<>();
+        if (json != null) {
+            Iterator<String> keys = json.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                map.put(key, json.optString(key));
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,231 @@
+package com.rnappauth;
+
+import android.net.Uri;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+import com.rnappauth.utils.ExecutorUtil;
+
+import net.openid.appauth.AuthorizationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Performs API requests with the current access token of a registered account attached natively,
+ * so tokens never cross the bridge per request. A 401 response triggers one refresh through the
+ * {@link AccountRegistry}, shared with every other request that hit the same expired token, and
+ * the request is retried once with the new token.
+ */
+final class AuthenticatedHttpClient {
+
+    static final String CHUNK_EVENT = "RNAppAuthFetchChunk";
+
+    private static final int MAX_CONCURRENCY = 4;
+    private static final int CHUNK_SIZE = 8192;
+
+    static final class Request {
+        final String url;
+        final String method;
+        @Nullable final Map<String, String> headers;
+        @Nullable final String body;
+        // when set, the body is streamed to JS in CHUNK_EVENT events tagged with this id
+        @Nullable final String streamId;
+
+        Request(String url, String method, @Nullable Map<String, String> headers, @Nullable String body, @Nullable String streamId) {
+            this.url = url;
+            this.method = method;
+            this.headers = headers;
+            this.body = body;
+            this.streamId = streamId;
+        }
+    }
+
+    private final ReactApplicationContext reactContext;
+    private final AccountRegistry accountRegistry;
+    private final ThreadPoolExecutor executor = ExecutorUtil.newBoundedExecutor("RNAppAuth-fetch-", MAX_CONCURRENCY);
+
+    AuthenticatedHttpClient(ReactApplicationContext reactContext, AccountRegistry accountRegistry) {
+        this.reactContext = reactContext;
+        this.accountRegistry = accountRegistry;
+    }
+
+    void fetch(final String accountId, final Request request, final Promise promise) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    promise.resolve(performWithFreshToken(accountId, request));
+                } catch (IOException e) {
+                    promise.reject("Failed to fetch", e.getMessage());
+                } catch (RuntimeException e) {
+                    promise.reject("Failed to fetch", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private WritableMap performWithFreshToken(String accountId, Request request) throws IOException {
+        AccountSession session = accountRegistry.get(accountId);
+        if (session == null) {
+            throw new IllegalStateException("No account registered for " + accountId);
+        }
+
+        String accessToken = session.authState.getAccessToken();
+        HttpURLConnection conn = open(session, request, accessToken);
+        if (conn.getResponseCode() != HttpURLConnection.HTTP_UNAUTHORIZED || session.authState.getRefreshToken() == null) {
+            return readResponse(conn, request);
+        }
+
+        discard(conn);
+        session = awaitRefresh(accountId, accessToken);
+        return readResponse(open(session, request, session.authState.getAccessToken()), request);
+    }
+
+    /*
+     * Refresh unless another request already replaced the token that was rejected
+     */
+    private AccountSession awaitRefresh(String accountId, String rejectedAccessToken) throws IOException {
+        AccountSession session = accountRegistry.get(accountId);
+        if (session != null && !rejectedAccessToken.equals(session.authState.getAccessToken())) {
+            return session;
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<AccountSession> refreshed = new AtomicReference<>();
+        final AtomicReference<AuthorizationException> failure = new AtomicReference<>();
+        accountRegistry.refresh(accountId, new AccountRegistry.RefreshCallback() {
+            @Override
+            public void onRefreshCompleted(@Nullable AccountSession refreshedSession, @Nullable AuthorizationException ex) {
+                refreshed.set(refreshedSession);
+                failure.set(ex);
+                latch.countDown();
+            }
+        });
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while refreshing the access token");
+        }
+
+        if (refreshed.get() == null) {
+            AuthorizationException ex = failure.get();
+            throw new IllegalStateException("Failed to refresh token" + (ex != null ? ": " + ex.getMessage() : ""));
+        }
+        return refreshed.get();
+    }
+
+    private HttpURLConnection open(AccountSession session, Request request, String accessToken) throws IOException {
+        HttpURLConnection conn = RNAppAuthModule
+                .createConnectionBuilder(session.dangerouslyAllowInsecureHttpRequests, session.tokenHeaders)
+                .openConnection(Uri.parse(request.url));
+        conn.setRequestMethod(request.method);
+        if (request.headers != null) {
+            for (Map.Entry<String, String> header : request.headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+        conn.setRequestProperty("Authorization", "Bearer " + accessToken);
+
+        if (request.body != null) {
+            byte[] body = request.body.getBytes("UTF-8");
+            conn.setDoOutput(true);
+            conn.setFixedLengthStreamingMode(body.length);
+            OutputStream out = conn.getOutputStream();
+            try {
+                out.write(body);
+            } finally {
+                out.close();
+            }
+        }
+
+        return conn;
+    }
+
+    private WritableMap readResponse(HttpURLConnection conn, Request request) throws IOException {
+        WritableMap result = Arguments.createMap();
+        result.putInt("status", conn.getResponseCode());
+
+        WritableMap headers = Arguments.createMap();
+        for (Map.Entry<String, List<String>> header : conn.getHeaderFields().entrySet()) {
+            if (header.getKey() != null && !header.getValue().isEmpty()) {
+                headers.putString(header.getKey(), header.getValue().get(0));
+            }
+        }
+        result.putMap("headers", headers);
+
+        InputStream stream = getResponseStream(conn);
+        if (stream == null) {
+            result.putString("body", request.streamId != null ? null : "");
+            return result;
+        }
+
+        Reader reader = new InputStreamReader(stream, "UTF-8");
+        try {
+            StringBuilder body = request.streamId != null ? null : new StringBuilder();
+            char[] buffer = new char[CHUNK_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (body != null) {
+                    body.append(buffer, 0, read);
+                } else {
+                    emitChunk(request.streamId, new String(buffer, 0, read));
+                }
+            }
+            result.putString("body", body != null ? body.toString() : null);
+        } finally {
+            reader.close();
+        }
+
+        return result;
+    }
+
+    private void emitChunk(String streamId, String chunk) {
+        WritableMap event = Arguments.createMap();
+        event.putString("streamId", streamId);
+        event.putString("chunk", chunk);
+        reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(CHUNK_EVENT, event);
+    }
+
+    @Nullable
+    private static InputStream getResponseStream(HttpURLConnection conn) throws IOException {
+        return conn.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST
+                ? conn.getErrorStream()
+                : conn.getInputStream();
+    }
+
+    /*
+     * Drain the rejected response so its connection can be reused for the retry
+     */
+    private static void discard(HttpURLConnection conn) throws IOException {
+        InputStream stream = getResponseStream(conn);
+        if (stream == null) {
+            return;
+        }
+        try {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            while (stream.read(buffer) != -1) {
+                // discard
+            }
+        } finally {
+            stream.close();
+        }
+    }
+}
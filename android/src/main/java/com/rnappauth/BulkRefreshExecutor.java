@@ -0,0 +1,156 @@
+package com.rnappauth;
+
+import android.net.Uri;
+import androidx.annotation.Nullable;
+
+import com.rnappauth.utils.ExecutorUtil;
+import com.rnappauth.utils.HttpUtil;
+
+import net.openid.appauth.AuthorizationException;
+import net.openid.appauth.AuthorizationService;
+import net.openid.appauth.ClientAuthentication;
+import net.openid.appauth.TokenRequest;
+import net.openid.appauth.TokenResponse;
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs token requests on a bounded thread pool, with a cap on concurrent requests per token
+ * endpoint host. Requests over the cap wait in a queue per host rather than in the pool, so a slow
+ * host never ties up the threads other hosts could use. AuthorizationService queues its requests
+ * on the serial AsyncTask executor, so bulk refreshes perform the token request directly instead.
+ */
+final class BulkRefreshExecutor {
+
+    static final int MAX_CONCURRENCY = 4;
+    static final int MAX_CONCURRENCY_PER_HOST = 2;
+
+    private static final class HostQueue {
+        final Queue<Runnable> waiting = new ArrayDeque<>();
+        int running;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, HostQueue> hostQueues = new HashMap<>();
+
+    BulkRefreshExecutor() {
+        executor = ExecutorUtil.newBoundedExecutor("RNAppAuth-refresh-", MAX_CONCURRENCY);
+    }
+
+    void submit(
+            final TokenRequest tokenRequest,
+            final ClientAuthentication clientAuthentication,
+            final ConnectionBuilder connectionBuilder,
+            final AuthorizationService.TokenResponseCallback callback
+    ) {
+        final String host = tokenRequest.configuration.tokenEndpoint.getAuthority();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    TokenResponse response = null;
+                    AuthorizationException exception = null;
+                    try {
+                        response = performTokenRequest(tokenRequest, clientAuthentication, connectionBuilder);
+                    } catch (AuthorizationException e) {
+                        exception = e;
+                    } catch (RuntimeException e) {
+                        // e.g. the connection builder refusing a plain http endpoint, the request never went out
+                        exception = AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.NETWORK_ERROR, e);
+                    }
+
+                    callback.onTokenRequestCompleted(response, exception);
+                } finally {
+                    runNext(host);
+                }
+            }
+        };
+
+        synchronized (hostQueues) {
+            HostQueue queue = hostQueues.get(host);
+            if (queue == null) {
+                queue = new HostQueue();
+                hostQueues.put(host, queue);
+            }
+            if (queue.running >= MAX_CONCURRENCY_PER_HOST) {
+                queue.waiting.add(task);
+                return;
+            }
+            queue.running++;
+        }
+        executor.execute(task);
+    }
+
+    /*
+     * Hand the finished request's slot to the next request waiting for the same host
+     */
+    private void runNext(String host) {
+        Runnable next;
+        synchronized (hostQueues) {
+            HostQueue queue = hostQueues.get(host);
+            next = queue.waiting.poll();
+            if (next == null && --queue.running == 0) {
+                hostQueues.remove(host);
+            }
+        }
+        if (next != null) {
+            executor.execute(next);
+        }
+    }
+
+    /*
+     * Synchronous equivalent of AuthorizationService.performTokenRequest
+     */
+    static TokenResponse performTokenRequest(
+            TokenRequest tokenRequest,
+            ClientAuthentication clientAuthentication,
+            ConnectionBuilder connectionBuilder
+    ) throws AuthorizationException {
+        Map<String, String> parameters = new HashMap<>(tokenRequest.getRequestParameters());
+        Map<String, String> clientAuthParameters = clientAuthentication.getRequestParameters(tokenRequest.clientId);
+        if (clientAuthParameters != null) {
+            parameters.putAll(clientAuthParameters);
+        }
+
+        HttpURLConnection conn = null;
+        try {
+            conn = HttpUtil.postForm(
+                    connectionBuilder,
+                    tokenRequest.configuration.tokenEndpoint,
+                    clientAuthentication.getRequestHeaders(tokenRequest.clientId),
+                    parameters
+            );
+            JSONObject json = new JSONObject(HttpUtil.readResponse(conn));
+
+            if (json.has("error")) {
+                String error = json.getString("error");
+                String errorUri = json.optString("error_uri", null);
+                throw AuthorizationException.fromOAuthTemplate(
+                        AuthorizationException.TokenRequestErrors.byString(error),
+                        error,
+                        json.optString("error_description", null),
+                        errorUri != null ? Uri.parse(errorUri) : null
+                );
+            }
+
+            return new TokenResponse.Builder(tokenRequest).fromResponseJson(json).build();
+        } catch (IOException e) {
+            if (conn != null) {
+                conn.disconnect();
+            }
+            throw AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.NETWORK_ERROR, e);
+        } catch (JSONException e) {
+            throw AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.JSON_DESERIALIZATION_ERROR, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.rnappauth;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+import com.rnappauth.utils.TokenEndpointPreconnector;
+
+import net.openid.appauth.AuthorizationRequest;
+
+import java.util.Map;
+
+/**
+ * An authorization request that is waiting for its redirect, with everything needed to exchange
+ * the code once the redirect arrives, whichever way it is delivered.
+ */
+final class PendingAuthorization {
+
+    static final String REDIRECT_NEW_INTENT = "onNewIntent";
+    static final String REDIRECT_ACTIVITY_RESULT = "onActivityResult";
+
+    final AuthorizationRequest request;
+    final Promise promise;
+    final Map<String, String> additionalParameters;
+    @Nullable final String clientSecret;
+    final Boolean dangerouslyAllowInsecureHttpRequests;
+    @Nullable final Map<String, String> tokenRequestHeaders;
+    final Boolean skipAccessTokenExpirationDate;
+    @Nullable final TokenEndpointPreconnector tokenEndpointPreconnector;
+
+    private final long launchedAt = SystemClock.elapsedRealtime();
+    private long redirectReceivedAt;
+    private String redirectPath;
+
+    PendingAuthorization(
+            AuthorizationRequest request,
+            Promise promise,
+            Map<String, String> additionalParameters,
+            @Nullable String clientSecret,
+            Boolean dangerouslyAllowInsecureHttpRequests,
+            @Nullable Map<String, String> tokenRequestHeaders,
+            Boolean skipAccessTokenExpirationDate,
+            @Nullable TokenEndpointPreconnector tokenEndpointPreconnector
+    ) {
+        this.request = request;
+        this.promise = promise;
+        this.additionalParameters = additionalParameters;
+        this.clientSecret = clientSecret;
+        this.dangerouslyAllowInsecureHttpRequests = dangerouslyAllowInsecureHttpRequests;
+        this.tokenRequestHeaders = tokenRequestHeaders;
+        this.skipAccessTokenExpirationDate = skipAccessTokenExpirationDate;
+        this.tokenEndpointPreconnector = tokenEndpointPreconnector;
+    }
+
+    void onRedirectReceived(String redirectPath) {
+        this.redirectReceivedAt = SystemClock.elapsedRealtime();
+        this.redirectPath = redirectPath;
+    }
+
+    /*
+     * Time spent in the browser until the redirect was delivered, and in the code exchange
+     */
+    WritableMap createTimingMap() {
+        WritableMap timing = Arguments.createMap();
+        timing.putString("redirectPath", redirectPath);
+        timing.putDouble("browserMs", redirectReceivedAt - launchedAt);
+        timing.putDouble("tokenExchangeMs", SystemClock.elapsedRealtime() - redirectReceivedAt);
+        return timing;
+    }
+}
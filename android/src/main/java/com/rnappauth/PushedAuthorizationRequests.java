@@ -0,0 +1,176 @@
+package com.rnappauth;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+
+import com.rnappauth.utils.HttpUtil;
+
+import net.openid.appauth.AuthorizationException;
+import net.openid.appauth.AuthorizationRequest;
+import net.openid.appauth.ClientAuthentication;
+import net.openid.appauth.ResponseTypeValues;
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushed Authorization Requests (RFC 9126). The full authorization request is POSTed to the
+ * pushed_authorization_request_endpoint ahead of time, and the browser is opened with a short
+ * request that only references the returned request_uri. Pushed requests are cached until they
+ * expire and handed out at most once, since a request_uri is single use.
+ */
+final class PushedAuthorizationRequests {
+
+    static final String DISCOVERY_ENDPOINT_KEY = "pushed_authorization_request_endpoint";
+
+    private static final String PARAM_REQUEST_URI = "request_uri";
+    private static final String PARAM_CLIENT_SECRET = "client_secret";
+    private static final long EXPIRY_MARGIN_MS = TimeUnit.SECONDS.toMillis(5);
+
+    static final class PushResult {
+        final AuthorizationRequest request;
+        final long expiresInMs;
+
+        PushResult(AuthorizationRequest request, long expiresInMs) {
+            this.request = request;
+            this.expiresInMs = expiresInMs;
+        }
+    }
+
+    private static final class PushedRequest {
+        final AuthorizationRequest request;
+        final long expiresAt;
+
+        PushedRequest(AuthorizationRequest request, long expiresAt) {
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, PushedRequest> pushedRequests = new HashMap<>();
+
+    /*
+     * Identify authorization requests that can share a pushed request
+     */
+    static String createCacheKey(
+            String clientId,
+            String redirectUrl,
+            @Nullable String scopes,
+            boolean usePKCE,
+            Map<String, String> additionalParameters
+    ) {
+        return clientId + '|' + redirectUrl + '|' + scopes + '|' + usePKCE + '|' + new TreeMap<>(additionalParameters);
+    }
+
+    synchronized void put(String cacheKey, PushResult pushed) {
+        pushedRequests.put(cacheKey, new PushedRequest(pushed.request, SystemClock.elapsedRealtime() + pushed.expiresInMs - EXPIRY_MARGIN_MS));
+    }
+
+    /*
+     * Remove and return an unexpired pushed request for the key
+     */
+    @Nullable
+    synchronized AuthorizationRequest take(String cacheKey) {
+        PushedRequest pushed = pushedRequests.remove(cacheKey);
+        if (pushed == null || pushed.expiresAt <= SystemClock.elapsedRealtime()) {
+            return null;
+        }
+        return pushed.request;
+    }
+
+    /*
+     * Push the full request and return the short request to open in the browser, together with
+     * the lifetime of its request_uri. Blocks on network I/O
+     */
+    static PushResult push(
+            AuthorizationRequest authRequest,
+            Uri endpoint,
+            ClientAuthentication clientAuthentication,
+            ConnectionBuilder connectionBuilder
+    ) throws AuthorizationException {
+        Uri fullRequestUri = authRequest.toUri();
+        Map<String, String> parameters = new HashMap<>();
+        for (String name : fullRequestUri.getQueryParameterNames()) {
+            parameters.put(name, fullRequestUri.getQueryParameter(name));
+        }
+        // the module adds the secret to the authorization request's parameters, but the client
+        // must authenticate with a single method, the one given by clientAuthentication
+        parameters.remove(PARAM_CLIENT_SECRET);
+        Map<String, String> clientAuthParameters = clientAuthentication.getRequestParameters(authRequest.clientId);
+        if (clientAuthParameters != null) {
+            parameters.putAll(clientAuthParameters);
+        }
+
+        HttpURLConnection conn = null;
+        try {
+            conn = HttpUtil.postForm(
+                    connectionBuilder,
+                    endpoint,
+                    clientAuthentication.getRequestHeaders(authRequest.clientId),
+                    parameters
+            );
+            JSONObject json = new JSONObject(HttpUtil.readResponse(conn));
+
+            if (json.has("error")) {
+                String error = json.getString("error");
+                String errorUri = json.optString("error_uri", null);
+                throw AuthorizationException.fromOAuthTemplate(
+                        AuthorizationException.AuthorizationRequestErrors.byString(error),
+                        error,
+                        json.optString("error_description", null),
+                        errorUri != null ? Uri.parse(errorUri) : null
+                );
+            }
+
+            return new PushResult(
+                    createShortRequest(authRequest, json.getString(PARAM_REQUEST_URI)),
+                    TimeUnit.SECONDS.toMillis(json.getLong("expires_in"))
+            );
+        } catch (IOException e) {
+            if (conn != null) {
+                conn.disconnect();
+            }
+            throw AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.NETWORK_ERROR, e);
+        } catch (JSONException e) {
+            throw AuthorizationException.fromTemplate(AuthorizationException.GeneralErrors.JSON_DESERIALIZATION_ERROR, e);
+        }
+    }
+
+    /*
+     * Keep only what AppAuth needs to validate the redirect and exchange the code: the state and
+     * the PKCE verifier. Everything else was pushed and is referenced by request_uri
+     */
+    private static AuthorizationRequest createShortRequest(AuthorizationRequest authRequest, String requestUri) {
+        AuthorizationRequest.Builder builder =
+                new AuthorizationRequest.Builder(
+                        authRequest.configuration,
+                        authRequest.clientId,
+                        ResponseTypeValues.CODE,
+                        authRequest.redirectUri
+                )
+                        .setState(authRequest.state)
+                        .setAdditionalParameters(Collections.singletonMap(PARAM_REQUEST_URI, requestUri));
+
+        if (authRequest.codeVerifier != null) {
+            builder.setCodeVerifier(
+                    authRequest.codeVerifier,
+                    authRequest.codeVerifierChallenge,
+                    authRequest.codeVerifierChallengeMethod
+            );
+        } else {
+            builder.setCodeVerifier(null);
+        }
+
+        return builder.build();
+    }
+}
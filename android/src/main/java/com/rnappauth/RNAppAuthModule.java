@@ -7,27 +7,37 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.browser.customtabs.CustomTabsCallback;
 import androidx.browser.customtabs.CustomTabsClient;
 import androidx.browser.customtabs.CustomTabsServiceConnection;
 
 import com.facebook.react.bridge.ActivityEventListener;
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 
+import com.rnappauth.utils.ArrayUtil;
 import com.rnappauth.utils.MapUtil;
+import com.rnappauth.utils.TraceUtil;
 import com.rnappauth.utils.UnsafeConnectionBuilder;
 import com.rnappauth.utils.TokenResponseFactory;
+import com.rnappauth.utils.TokenEndpointPreconnector;
 import com.rnappauth.utils.CustomConnectionBuilder;
 
 import net.openid.appauth.AppAuthConfiguration;
+import net.openid.appauth.AuthState;
 import net.openid.appauth.AuthorizationException;
 import net.openid.appauth.AuthorizationRequest;
 import net.openid.appauth.AuthorizationResponse;
@@ -36,37 +46,72 @@ import net.openid.appauth.AuthorizationServiceConfiguration;
 import net.openid.appauth.ClientAuthentication;
 import net.openid.appauth.ClientSecretBasic;
 import net.openid.appauth.ClientSecretPost;
+import net.openid.appauth.GrantTypeValues;
+import net.openid.appauth.NoClientAuthentication;
 import net.openid.appauth.ResponseTypeValues;
 import net.openid.appauth.TokenResponse;
 import net.openid.appauth.TokenRequest;
 import net.openid.appauth.connectivity.ConnectionBuilder;
 import net.openid.appauth.connectivity.DefaultConnectionBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.CountDownLatch;
 
 public class RNAppAuthModule extends ReactContextBaseJavaModule implements ActivityEventListener {
 
+    public static final String NAME = "RNAppAuth";
     public static final String CUSTOM_TAB_PACKAGE_NAME = "com.android.chrome";
+    static final String ACCOUNT_TOKENS_REFRESHED_EVENT = "RNAppAuthAccountTokensRefreshed";
+
+    private static final String TAG = "RNAppAuth";
 
     private final ReactApplicationContext reactContext;
     private Promise promise;
     private Boolean dangerouslyAllowInsecureHttpRequests;
+    private Boolean skipAccessTokenExpirationDate = false;
     private String clientAuthMethod = "basic";
     private Map<String, String> authorizationRequestHeaders = null;
     private Map<String, String> tokenRequestHeaders = null;
     private Map<String, String> additionalParametersMap;
     private String clientSecret;
     private final AtomicReference<AuthorizationServiceConfiguration> mServiceConfiguration = new AtomicReference<>();
+    // fetched discovery documents by issuer, for calls that mix issuers
+    private final Map<String, AuthorizationServiceConfiguration> issuerConfigurations = new ConcurrentHashMap<>();
     private boolean isPrefetched = false;
+    private boolean isActivityEventListenerRegistered = false;
+    private AccountRegistry accountRegistry;
+    private BulkRefreshExecutor bulkRefreshExecutor;
+    private AuthenticatedHttpClient authenticatedHttpClient;
+    private UserInfoClient userInfoClient;
+    private TokenIntrospector tokenIntrospector;
+    private final PushedAuthorizationRequests pushedAuthorizationRequests = new PushedAuthorizationRequests();
+    // keyed by state, so a redirect is matched to the request it answers
+    private final Map<String, PendingAuthorization> pendingAuthorizations = new HashMap<>();
+    private String lastLaunchedState;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<ConfigurationFetch, List<AuthorizationServiceConfiguration.RetrieveConfigurationCallback>> pendingConfigurationCallbacks = new HashMap<>();
 
     public RNAppAuthModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
-        reactContext.addActivityEventListener(this);
+    }
+
+    /*
+     * Listen for activity results only once an authorization flow has been started
+     */
+    private void registerActivityEventListener() {
+        if (!isActivityEventListenerRegistered) {
+            reactContext.addActivityEventListener(this);
+            isActivityEventListenerRegistered = true;
+        }
     }
 
     @ReactMethod
@@ -79,6 +124,11 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
         final ReadableMap serviceConfiguration,
         final Boolean dangerouslyAllowInsecureHttpRequests,
         final ReadableMap headers,
+        final String clientSecret,
+        final ReadableMap additionalParameters,
+        final Boolean usePKCE,
+        final String clientAuthMethod,
+        final Boolean usePAR,
         final Promise promise
     ) {
         if (warmAndPrefetchChrome) {
@@ -88,30 +138,33 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
         this.parseHeaderMap(headers);
         final ConnectionBuilder builder = createConnectionBuilder(dangerouslyAllowInsecureHttpRequests, this.authorizationRequestHeaders);
         final CountDownLatch fetchConfigurationLatch = new CountDownLatch(1);
+        // a failed prefetch has already rejected, but the latch is released either way
+        final AtomicBoolean fetchConfigurationFailed = new AtomicBoolean(false);
 
-        if(!isPrefetched) {
-            if (serviceConfiguration != null && mServiceConfiguration.get() == null) {
+        if(!isPrefetched && mServiceConfiguration.get() == null) {
+            if (serviceConfiguration != null) {
                 try {
                     mServiceConfiguration.set(createAuthorizationServiceConfiguration(serviceConfiguration));
                     isPrefetched = true;
-                    fetchConfigurationLatch.countDown();
                 } catch (Exception e) {
+                    fetchConfigurationFailed.set(true);
                     promise.reject("RNAppAuth Error", "Failed to convert serviceConfiguration", e);
                 }
-            } else if (mServiceConfiguration.get() == null) {
-                final Uri issuerUri = Uri.parse(issuer);
-                AuthorizationServiceConfiguration.fetchFromUrl(
-                        buildConfigurationUriFromIssuer(issuerUri),
+                fetchConfigurationLatch.countDown();
+            } else {
+                fetchConfiguration(
+                        issuer,
                         new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
                             public void onFetchConfigurationCompleted(
                                     @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
                                     @Nullable AuthorizationException ex) {
                                 if (ex != null) {
+                                    fetchConfigurationFailed.set(true);
                                     promise.reject("RNAppAuth Error", "Failed to fetch configuration", ex);
-                                    return;
+                                } else {
+                                    mServiceConfiguration.set(fetchedConfiguration);
+                                    isPrefetched = true;
                                 }
-                                mServiceConfiguration.set(fetchedConfiguration);
-                                isPrefetched = true;
                                 fetchConfigurationLatch.countDown();
                             }
                         },
@@ -124,6 +177,26 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
 
         try {
             fetchConfigurationLatch.await();
+            if (fetchConfigurationFailed.get()) {
+                return;
+            }
+            if (usePAR && mServiceConfiguration.get() != null) {
+                final HashMap<String, String> additionalParametersMap = MapUtil.readableMapToHashMap(additionalParameters);
+                if (clientSecret != null) {
+                    additionalParametersMap.put("client_secret", clientSecret);
+                }
+                prefetchPushedAuthorizationRequest(
+                        mServiceConfiguration.get(),
+                        clientId,
+                        scopes != null ? ArrayUtil.arrayToString(scopes) : null,
+                        redirectUrl,
+                        usePKCE,
+                        additionalParametersMap,
+                        clientSecret,
+                        clientAuthMethod,
+                        createConnectionBuilder(dangerouslyAllowInsecureHttpRequests, this.tokenRequestHeaders)
+                );
+            }
             promise.resolve(isPrefetched);
         } catch (Exception e) {
             promise.reject("RNAppAuth Error", "Failed to await fetch configuration", e);
@@ -143,6 +216,9 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             final String clientAuthMethod,
             final Boolean dangerouslyAllowInsecureHttpRequests,
             final ReadableMap headers,
+            final Boolean skipAccessTokenExpirationDate,
+            final Boolean preconnectTokenEndpoint,
+            final Boolean usePAR,
             final Promise promise
     ) {
         this.parseHeaderMap(headers);
@@ -154,12 +230,15 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             additionalParametersMap.put("client_secret", clientSecret);
         }
 
+        registerActivityEventListener();
+
         // store args in private fields for later use in onActivityResult handler
         this.promise = promise;
         this.dangerouslyAllowInsecureHttpRequests = dangerouslyAllowInsecureHttpRequests;
         this.additionalParametersMap = additionalParametersMap;
         this.clientSecret = clientSecret;
         this.clientAuthMethod = clientAuthMethod;
+        this.skipAccessTokenExpirationDate = skipAccessTokenExpirationDate;
 
         // when serviceConfiguration is provided, we don't need to hit up the OpenID well-known id endpoint
         if (serviceConfiguration != null || mServiceConfiguration.get() != null) {
@@ -172,15 +251,16 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                         scopes,
                         redirectUrl,
                         usePKCE,
-                        additionalParametersMap
+                        additionalParametersMap,
+                        preconnectTokenEndpoint,
+                        usePAR
                 );
             } catch (Exception e) {
                 promise.reject("Failed to authenticate", e.getMessage());
             }
         } else {
-            final Uri issuerUri = Uri.parse(issuer);
-            AuthorizationServiceConfiguration.fetchFromUrl(
-                    buildConfigurationUriFromIssuer(issuerUri),
+            fetchConfiguration(
+                    issuer,
                     new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
                         public void onFetchConfigurationCompleted(
                                 @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
@@ -191,7 +271,6 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                             }
 
                             mServiceConfiguration.set(fetchedConfiguration);
-
                             authorizeWithConfiguration(
                                     fetchedConfiguration,
                                     appAuthConfiguration,
@@ -199,7 +278,9 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                                     scopes,
                                     redirectUrl,
                                     usePKCE,
-                                    additionalParametersMap
+                                    additionalParametersMap,
+                                    preconnectTokenEndpoint,
+                                    usePAR
                             );
                         }
                     },
@@ -225,6 +306,7 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             final String clientAuthMethod,
             final Boolean dangerouslyAllowInsecureHttpRequests,
             final ReadableMap headers,
+            final Boolean skipAccessTokenExpirationDate,
             final Promise promise
     ) {
         this.parseHeaderMap(headers);
@@ -254,15 +336,15 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                         additionalParametersMap,
                         clientAuthMethod,
                         clientSecret,
+                        skipAccessTokenExpirationDate,
                         promise
                 );
             } catch (Exception e) {
                 promise.reject("Failed to refresh token", e.getMessage());
             }
         } else {
-            final Uri issuerUri = Uri.parse(issuer);
-            AuthorizationServiceConfiguration.fetchFromUrl(
-                    buildConfigurationUriFromIssuer(issuerUri),
+            fetchConfiguration(
+                    issuer,
                     new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
                         public void onFetchConfigurationCompleted(
                                 @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
@@ -273,7 +355,6 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                             }
 
                             mServiceConfiguration.set(fetchedConfiguration);
-
                             refreshWithConfiguration(
                                     fetchedConfiguration,
                                     appAuthConfiguration,
@@ -284,6 +365,7 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                                     additionalParametersMap,
                                     clientAuthMethod,
                                     clientSecret,
+                                    skipAccessTokenExpirationDate,
                                     promise
                             );
                         }
@@ -293,6 +375,352 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
 
     }
 
+    /*
+     * Refresh many tokens in one bridge call, resolving with one result per spec in the same order.
+     * Failed items resolve to { error, message } instead of rejecting the whole batch
+     */
+    @ReactMethod
+    public void refreshMany(final ReadableArray refreshSpecs, final Promise promise) {
+        final int count = refreshSpecs.size();
+        if (count == 0) {
+            promise.resolve(Arguments.createArray());
+            return;
+        }
+
+        final WritableMap[] results = new WritableMap[count];
+        final AtomicInteger remaining = new AtomicInteger(count);
+        // specs with the same security settings and headers share a connection builder
+        final Map<String, ConnectionBuilder> connectionBuilders = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final ReadableMap spec = refreshSpecs.getMap(i);
+            final String clientId = spec.getString("clientId");
+            final String clientSecret = getOptionalString(spec, "clientSecret");
+            final String clientAuthMethod = spec.hasKey("clientAuthMethod") ? spec.getString("clientAuthMethod") : "basic";
+            final boolean allowInsecure = spec.hasKey("dangerouslyAllowInsecureHttpRequests") && spec.getBoolean("dangerouslyAllowInsecureHttpRequests");
+            final boolean skipExpirationDate = spec.hasKey("skipAccessTokenExpirationDate") && spec.getBoolean("skipAccessTokenExpirationDate");
+            final Map<String, String> tokenHeaders = spec.hasKey("customHeaders") && !spec.isNull("customHeaders") && spec.getMap("customHeaders").hasKey("token")
+                    ? MapUtil.readableMapToHashMap(spec.getMap("customHeaders").getMap("token"))
+                    : null;
+            final HashMap<String, String> additionalParametersMap = MapUtil.readableMapToHashMap(
+                    spec.hasKey("additionalParameters") && !spec.isNull("additionalParameters") ? spec.getMap("additionalParameters") : null
+            );
+            final String scopesString = spec.hasKey("scopes") && !spec.isNull("scopes") ? ArrayUtil.arrayToString(spec.getArray("scopes")) : null;
+
+            if (clientSecret != null) {
+                additionalParametersMap.put("client_secret", clientSecret);
+            }
+
+            String connectionKey = allowInsecure + "|" + tokenHeaders;
+            ConnectionBuilder sharedBuilder = connectionBuilders.get(connectionKey);
+            if (sharedBuilder == null) {
+                sharedBuilder = createConnectionBuilder(allowInsecure, tokenHeaders);
+                connectionBuilders.put(connectionKey, sharedBuilder);
+            }
+            final ConnectionBuilder builder = sharedBuilder;
+
+            final AuthorizationService.TokenResponseCallback itemCallback = new AuthorizationService.TokenResponseCallback() {
+                @Override
+                public void onTokenRequestCompleted(@Nullable TokenResponse response, @Nullable AuthorizationException ex) {
+                    WritableMap result;
+                    if (response != null) {
+                        result = TokenResponseFactory.tokenResponseToMap(response, skipExpirationDate);
+                    } else {
+                        result = Arguments.createMap();
+                        result.putString("error", "Failed to refresh token");
+                        result.putString("message", ex != null ? getErrorMessage(ex) : null);
+                    }
+                    completeRefreshManyItem(results, index, result, remaining, promise);
+                }
+            };
+
+            final AuthorizationServiceConfiguration.RetrieveConfigurationCallback refreshCallback = new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
+                public void onFetchConfigurationCompleted(
+                        @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
+                        @Nullable AuthorizationException ex) {
+                    if (ex != null) {
+                        WritableMap result = Arguments.createMap();
+                        result.putString("error", "Failed to fetch configuration");
+                        result.putString("message", getErrorMessage(ex));
+                        completeRefreshManyItem(results, index, result, remaining, promise);
+                        return;
+                    }
+
+                    try {
+                        TokenRequest tokenRequest = createRefreshTokenRequest(
+                                fetchedConfiguration,
+                                spec.getString("refreshToken"),
+                                clientId,
+                                scopesString,
+                                spec.getString("redirectUrl"),
+                                additionalParametersMap
+                        );
+                        ClientAuthentication clientAuth = clientSecret != null
+                                ? getClientAuthentication(clientSecret, clientAuthMethod)
+                                : NoClientAuthentication.INSTANCE;
+                        getBulkRefreshExecutor().submit(tokenRequest, clientAuth, builder, itemCallback);
+                    } catch (Exception e) {
+                        WritableMap result = Arguments.createMap();
+                        result.putString("error", "Failed to refresh token");
+                        result.putString("message", e.getMessage());
+                        completeRefreshManyItem(results, index, result, remaining, promise);
+                    }
+                }
+            };
+
+            // each spec may belong to another issuer, so mServiceConfiguration is no use here
+            final ReadableMap serviceConfiguration = spec.hasKey("serviceConfiguration") && !spec.isNull("serviceConfiguration") ? spec.getMap("serviceConfiguration") : null;
+            try {
+                resolveIssuerConfiguration(getOptionalString(spec, "issuer"), serviceConfiguration, builder, refreshCallback);
+            } catch (Exception e) {
+                WritableMap result = Arguments.createMap();
+                result.putString("error", "Failed to refresh token");
+                result.putString("message", e.getMessage());
+                completeRefreshManyItem(results, index, result, remaining, promise);
+            }
+        }
+    }
+
+    private static void completeRefreshManyItem(
+            WritableMap[] results,
+            int index,
+            WritableMap result,
+            AtomicInteger remaining,
+            Promise promise
+    ) {
+        results[index] = result;
+        if (remaining.decrementAndGet() == 0) {
+            WritableArray batch = Arguments.createArray();
+            for (WritableMap itemResult : results) {
+                batch.pushMap(itemResult);
+            }
+            promise.resolve(batch);
+        }
+    }
+
+    @Nullable
+    private static String getOptionalString(ReadableMap map, String key) {
+        return map.hasKey(key) && !map.isNull(key) ? map.getString(key) : null;
+    }
+
+    @ReactMethod
+    public void addAccount(
+            final String accountId,
+            String issuer,
+            final String redirectUrl,
+            final String clientId,
+            final String clientSecret,
+            final ReadableArray scopes,
+            final ReadableMap additionalParameters,
+            final ReadableMap serviceConfiguration,
+            final String clientAuthMethod,
+            final Boolean dangerouslyAllowInsecureHttpRequests,
+            final ReadableMap headers,
+            final ReadableMap tokens,
+            final Promise promise
+    ) {
+        this.parseHeaderMap(headers);
+        final Map<String, String> tokenHeaders = this.tokenRequestHeaders;
+        final ConnectionBuilder builder = createConnectionBuilder(dangerouslyAllowInsecureHttpRequests, tokenHeaders);
+        final HashMap<String, String> additionalParametersMap = MapUtil.readableMapToHashMap(additionalParameters);
+        final String scopesString = scopes != null ? ArrayUtil.arrayToString(scopes) : null;
+
+        if (clientSecret != null) {
+            additionalParametersMap.put("client_secret", clientSecret);
+        }
+
+        final AuthorizationServiceConfiguration.RetrieveConfigurationCallback addAccountCallback = new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
+            public void onFetchConfigurationCompleted(
+                    @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
+                    @Nullable AuthorizationException ex) {
+                if (ex != null) {
+                    promise.reject("Failed to fetch configuration", getErrorMessage(ex));
+                    return;
+                }
+
+                final AuthorizationServiceConfiguration serviceConfig = fetchedConfiguration;
+                // storing the account encrypts it and may wait for another process' refresh
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            AccountSession session = new AccountSession(
+                                    accountId,
+                                    createAuthState(serviceConfig, clientId, tokens),
+                                    clientId,
+                                    redirectUrl,
+                                    clientSecret,
+                                    clientAuthMethod,
+                                    scopesString,
+                                    additionalParametersMap,
+                                    dangerouslyAllowInsecureHttpRequests,
+                                    tokenHeaders
+                            );
+                            promise.resolve(accountToMap(getAccountRegistry().put(session)));
+                        } catch (Exception e) {
+                            promise.reject("Failed to add account", e.getMessage());
+                        }
+                    }
+                }).start();
+            }
+        };
+
+        // accounts may belong to different issuers, so mServiceConfiguration is no use here
+        try {
+            resolveIssuerConfiguration(issuer, serviceConfiguration, builder, addAccountCallback);
+        } catch (Exception e) {
+            promise.reject("Failed to add account", e.getMessage());
+        }
+    }
+
+    /*
+     * Make the account active and return its tokens. They come from memory or storage without any
+     * network I/O, unless they have expired and are refreshed first
+     */
+    @ReactMethod
+    public void switchAccount(final String accountId, final Promise promise) {
+        AccountSession session = getAccountRegistry().get(accountId);
+        if (session == null) {
+            promise.reject("Failed to switch account", "No account registered for " + accountId);
+            return;
+        }
+
+        getAccountRegistry().setActiveAccountId(accountId);
+        if (!session.authState.getNeedsTokenRefresh() || session.authState.getRefreshToken() == null) {
+            promise.resolve(accountToMap(session));
+            return;
+        }
+
+        getAccountRegistry().refresh(accountId, new AccountRegistry.RefreshCallback() {
+            @Override
+            public void onRefreshCompleted(@Nullable AccountSession refreshed, @Nullable AuthorizationException ex) {
+                if (refreshed != null) {
+                    promise.resolve(accountToMap(refreshed));
+                } else if (ex != null) {
+                    promise.reject("Failed to refresh token", getErrorMessage(ex));
+                } else {
+                    promise.reject("Failed to switch account", "No account registered for " + accountId);
+                }
+            }
+        });
+    }
+
+    @ReactMethod
+    public void removeAccount(final String accountId, final Promise promise) {
+        getAccountRegistry().remove(accountId);
+        promise.resolve(null);
+    }
+
+    /*
+     * Share registered accounts with the other processes of the app, so only one of them refreshes
+     * each account's tokens and all of them see the result
+     */
+    @ReactMethod
+    public void enableSharedAuthState(final Promise promise) {
+        if (!SharedAuthStateStore.isSupported()) {
+            promise.reject("Failed to enable shared auth state", "Shared auth state requires Android 6.0 or above");
+            return;
+        }
+
+        getAccountRegistry().enableSharedState(new SharedAuthStateStore(reactContext));
+        promise.resolve(null);
+    }
+
+    /*
+     * Perform an HTTP request with the account's access token attached natively, refreshing the
+     * token once on a 401. With a streamId in options the body is delivered in chunk events
+     */
+    @ReactMethod
+    public void authenticatedFetch(final String accountId, final String url, final ReadableMap options, final Promise promise) {
+        final AuthenticatedHttpClient.Request request = new AuthenticatedHttpClient.Request(
+                url,
+                options.hasKey("method") ? options.getString("method") : "GET",
+                options.hasKey("headers") ? MapUtil.readableMapToHashMap(options.getMap("headers")) : null,
+                getOptionalString(options, "body"),
+                getOptionalString(options, "streamId")
+        );
+        getAuthenticatedHttpClient().fetch(accountId, request, promise);
+    }
+
+    /*
+     * Fetch claims from the userinfo endpoint, taken from serviceConfiguration or the discovery
+     * document. Resolves with the response JSON string, cached per subject
+     */
+    @ReactMethod
+    public void getUserInfo(
+            final String issuer,
+            final ReadableMap serviceConfiguration,
+            final String accessToken,
+            final String idToken,
+            final Boolean dangerouslyAllowInsecureHttpRequests,
+            final ReadableMap headers,
+            final Promise promise
+    ) {
+        final ConnectionBuilder builder = createConnectionBuilder(
+                dangerouslyAllowInsecureHttpRequests,
+                headers != null && headers.hasKey("token") ? MapUtil.readableMapToHashMap(headers.getMap("token")) : null
+        );
+
+        resolveEndpoint(
+                issuer,
+                serviceConfiguration,
+                "userInfoEndpoint",
+                UserInfoClient.DISCOVERY_ENDPOINT_KEY,
+                builder,
+                "Failed to fetch user info",
+                promise,
+                new EndpointCallback() {
+                    @Override
+                    public void onEndpointResolved(Uri endpoint) {
+                        getUserInfoClient().fetch(endpoint, accessToken, idToken, builder, promise);
+                    }
+                }
+        );
+    }
+
+    /*
+     * Ask the introspection endpoint (RFC 7662) whether a token is active. Resolves with the
+     * response JSON string
+     */
+    @ReactMethod
+    public void introspect(
+            final String issuer,
+            final String clientId,
+            final String clientSecret,
+            final ReadableMap serviceConfiguration,
+            final String clientAuthMethod,
+            final Boolean dangerouslyAllowInsecureHttpRequests,
+            final ReadableMap headers,
+            final String token,
+            final String tokenTypeHint,
+            final Promise promise
+    ) {
+        final ConnectionBuilder builder = createConnectionBuilder(
+                dangerouslyAllowInsecureHttpRequests,
+                headers != null && headers.hasKey("token") ? MapUtil.readableMapToHashMap(headers.getMap("token")) : null
+        );
+        final ClientAuthentication clientAuth = clientSecret != null
+                ? getClientAuthentication(clientSecret, clientAuthMethod)
+                : NoClientAuthentication.INSTANCE;
+
+        resolveEndpoint(
+                issuer,
+                serviceConfiguration,
+                "introspectionEndpoint",
+                TokenIntrospector.DISCOVERY_ENDPOINT_KEY,
+                builder,
+                "Failed to introspect token",
+                promise,
+                new EndpointCallback() {
+                    @Override
+                    public void onEndpointResolved(Uri endpoint) {
+                        getTokenIntrospector().introspect(endpoint, token, tokenTypeHint, clientId, clientAuth, builder, promise);
+                    }
+                }
+        );
+    }
+
     /*
      * Called when the OAuth browser activity completes
      */
@@ -300,53 +728,145 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
     public void onActivityResult(Activity activity, int requestCode, int resultCode, Intent data) {
         if (requestCode == 0) {
             if (data == null) {
-                promise.reject("Failed to authenticate", "Data intent is null" );
+                rejectLastLaunchedAuthorization("Data intent is null");
                 return;
             }
             
             final AuthorizationResponse response = AuthorizationResponse.fromIntent(data);
             AuthorizationException exception = AuthorizationException.fromIntent(data);
             if (exception != null) {
-                promise.reject("Failed to authenticate", getErrorMessage(exception));
+                rejectLastLaunchedAuthorization(getErrorMessage(exception));
+                return;
+            }
+            if (response == null || response.state == null) {
+                rejectLastLaunchedAuthorization("Authorization response is missing");
                 return;
             }
 
-            final Promise authorizePromise = this.promise;
-            final AppAuthConfiguration configuration = createAppAuthConfiguration(
-                    createConnectionBuilder(this.dangerouslyAllowInsecureHttpRequests, this.tokenRequestHeaders)
-            );
+            final PendingAuthorization pending;
+            synchronized (pendingAuthorizations) {
+                pending = pendingAuthorizations.remove(response.state);
+            }
+            // already completed when the redirect was delivered through onNewIntent
+            if (pending == null) {
+                return;
+            }
 
-            AuthorizationService authService = new AuthorizationService(this.reactContext, configuration);
+            pending.onRedirectReceived(PendingAuthorization.REDIRECT_ACTIVITY_RESULT);
+            exchangeAuthorizationCode(pending, response);
+        }
+    }
 
-            TokenRequest tokenRequest = response.createTokenExchangeRequest(this.additionalParametersMap);
+    /*
+     * Called when the redirect is delivered straight to the host activity, through a verified App
+     * Link or custom scheme intent filter. The code exchange starts without waiting for AppAuth's
+     * activities to hand the result back
+     */
+    @Override
+    public void onNewIntent(Intent intent) {
+        final Uri redirect = intent != null ? intent.getData() : null;
+        // opaque URIs such as mailto: have no query to read the state from
+        if (redirect == null || !redirect.isHierarchical()) {
+            return;
+        }
 
-            AuthorizationService.TokenResponseCallback tokenResponseCallback = new AuthorizationService.TokenResponseCallback() {
+        final PendingAuthorization pending;
+        synchronized (pendingAuthorizations) {
+            String state = redirect.getQueryParameter("state");
+            PendingAuthorization candidate = pendingAuthorizations.get(state);
+            if (candidate == null || !isRedirectTo(redirect, candidate.request.redirectUri)) {
+                return;
+            }
+            pending = pendingAuthorizations.remove(state);
+        }
 
-                @Override
-                public void onTokenRequestCompleted(
-                        TokenResponse resp, AuthorizationException ex) {
-                    if (resp != null) {
-                        WritableMap map = TokenResponseFactory.tokenResponseToMap(resp, response);
-                        authorizePromise.resolve(map);
-                    } else {
-                        promise.reject("Failed exchange token", getErrorMessage(ex));
-                    }
+        pending.onRedirectReceived(PendingAuthorization.REDIRECT_NEW_INTENT);
+        if (redirect.getQueryParameter("error") != null) {
+            pending.promise.reject("Failed to authenticate", getErrorMessage(AuthorizationException.fromOAuthRedirect(redirect)));
+            return;
+        }
+
+        exchangeAuthorizationCode(pending, new AuthorizationResponse.Builder(pending.request).fromUri(redirect).build());
+    }
+
+    private static boolean isRedirectTo(Uri redirect, Uri redirectUri) {
+        return equalsNullable(redirect.getScheme(), redirectUri.getScheme())
+                && equalsNullable(redirect.getAuthority(), redirectUri.getAuthority())
+                && equalsNullable(redirect.getPath(), redirectUri.getPath());
+    }
+
+    private static boolean equalsNullable(@Nullable String a, @Nullable String b) {
+        return a != null ? a.equals(b) : b == null;
+    }
+
+    /*
+     * Failures carry no state, they belong to the request that opened the browser last. With a
+     * singleTask activity the redirect clears AppAuth's activity, which then reports a cancel just
+     * before the redirect arrives through onNewIntent, so the rejection waits for the main thread
+     * to finish delivering it
+     */
+    private void rejectLastLaunchedAuthorization(final String message) {
+        final String state;
+        synchronized (pendingAuthorizations) {
+            state = lastLaunchedState;
+        }
+
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                final PendingAuthorization pending;
+                synchronized (pendingAuthorizations) {
+                    pending = pendingAuthorizations.remove(state);
                 }
-            };
+                // already completed when the redirect was delivered through onNewIntent
+                if (pending != null) {
+                    pending.promise.reject("Failed to authenticate", message);
+                }
+            }
+        });
+    }
+
+    private void exchangeAuthorizationCode(final PendingAuthorization pending, final AuthorizationResponse response) {
+        final TokenEndpointPreconnector preconnector = pending.tokenEndpointPreconnector;
+        final String preconnectStatus = preconnector != null ? preconnector.getStatus() : null;
+        final AppAuthConfiguration configuration = createAppAuthConfiguration(
+                createConnectionBuilder(pending.dangerouslyAllowInsecureHttpRequests, pending.tokenRequestHeaders)
+        );
 
-            if (this.clientSecret != null) {
-                ClientAuthentication clientAuth;
-                if (this.additionalParametersMap.containsKey("shouldPostAuth")){
-                    clientAuth = new ClientSecretPost(clientSecret);
+        final AuthorizationService authService = new AuthorizationService(this.reactContext, configuration);
+
+        TokenRequest tokenRequest = response.createTokenExchangeRequest(pending.additionalParameters);
+
+        AuthorizationService.TokenResponseCallback tokenResponseCallback = new AuthorizationService.TokenResponseCallback() {
+
+            @Override
+            public void onTokenRequestCompleted(
+                    TokenResponse resp, AuthorizationException ex) {
+                authService.dispose();
+                if (resp != null) {
+                    WritableMap map = TokenResponseFactory.tokenResponseToMap(resp, response, pending.skipAccessTokenExpirationDate);
+                    if (preconnectStatus != null) {
+                        map.putString("tokenEndpointPreconnect", preconnectStatus);
+                    }
+                    map.putMap("authorizationTiming", pending.createTimingMap());
+                    pending.promise.resolve(map);
                 } else {
-                    clientAuth = new ClientSecretBasic(clientSecret);
+                    pending.promise.reject("Failed exchange token", getErrorMessage(ex));
                 }
-                authService.performTokenRequest(tokenRequest, clientAuth, tokenResponseCallback);
+            }
+        };
 
+        if (pending.clientSecret != null) {
+            ClientAuthentication clientAuth;
+            if (pending.additionalParameters.containsKey("shouldPostAuth")){
+                clientAuth = new ClientSecretPost(pending.clientSecret);
             } else {
-                authService.performTokenRequest(tokenRequest, tokenResponseCallback);
+                clientAuth = new ClientSecretBasic(pending.clientSecret);
             }
+            authService.performTokenRequest(tokenRequest, clientAuth, tokenResponseCallback);
 
+        } else {
+            authService.performTokenRequest(tokenRequest, tokenResponseCallback);
         }
     }
 
@@ -360,18 +880,86 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             final ReadableArray scopes,
             final String redirectUrl,
             final Boolean usePKCE,
-            final Map<String, String> additionalParametersMap
+            final Map<String, String> additionalParametersMap,
+            final Boolean preconnectTokenEndpoint,
+            final Boolean usePAR
     ) {
 
         String scopesString = null;
 
         if (scopes != null) {
-            scopesString = this.arrayToString(scopes);
+            scopesString = ArrayUtil.arrayToString(scopes);
         }
 
-        final Context context = this.reactContext;
-        final Activity currentActivity = getCurrentActivity();
+        final String pushedRequestKey = PushedAuthorizationRequests.createCacheKey(
+                clientId,
+                redirectUrl,
+                scopesString,
+                usePKCE,
+                additionalParametersMap
+        );
+        final AuthorizationRequest authRequest = createAuthorizationRequest(
+                serviceConfiguration,
+                clientId,
+                scopesString,
+                redirectUrl,
+                usePKCE,
+                additionalParametersMap
+        );
+        final Uri pushedAuthorizationRequestEndpoint = getDiscoveryEndpoint(serviceConfiguration, PushedAuthorizationRequests.DISCOVERY_ENDPOINT_KEY);
+
+        if (!usePAR || pushedAuthorizationRequestEndpoint == null) {
+            launchAuthorizationRequest(authRequest, serviceConfiguration, appAuthConfiguration, preconnectTokenEndpoint);
+            return;
+        }
+
+        // open the browser straight away with a request pushed during prefetchConfiguration
+        final AuthorizationRequest prefetchedRequest = pushedAuthorizationRequests.take(pushedRequestKey);
+        if (prefetchedRequest != null) {
+            launchAuthorizationRequest(prefetchedRequest, serviceConfiguration, appAuthConfiguration, preconnectTokenEndpoint);
+            return;
+        }
 
+        final Promise authorizePromise = this.promise;
+        final ClientAuthentication clientAuth = this.clientSecret != null
+                ? getClientAuthentication(this.clientSecret, this.clientAuthMethod)
+                : NoClientAuthentication.INSTANCE;
+        final ConnectionBuilder builder = createConnectionBuilder(this.dangerouslyAllowInsecureHttpRequests, this.tokenRequestHeaders);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                PushedAuthorizationRequests.PushResult pushed = null;
+                try {
+                    pushed = PushedAuthorizationRequests.push(
+                            authRequest,
+                            pushedAuthorizationRequestEndpoint,
+                            clientAuth,
+                            builder
+                    );
+                    launchAuthorizationRequest(pushed.request, serviceConfiguration, appAuthConfiguration, preconnectTokenEndpoint);
+                } catch (AuthorizationException ex) {
+                    authorizePromise.reject("Failed to push authorization request", getErrorMessage(ex));
+                } catch (RuntimeException e) {
+                    // e.g. no current activity to open the browser from, nothing else would settle the promise
+                    if (pushed != null) {
+                        synchronized (pendingAuthorizations) {
+                            pendingAuthorizations.remove(pushed.request.state);
+                        }
+                    }
+                    authorizePromise.reject("Failed to authenticate", e.getMessage());
+                }
+            }
+        }, "RNAppAuth-par").start();
+    }
+
+    private AuthorizationRequest createAuthorizationRequest(
+            final AuthorizationServiceConfiguration serviceConfiguration,
+            final String clientId,
+            @Nullable final String scopesString,
+            final String redirectUrl,
+            final Boolean usePKCE,
+            final Map<String, String> additionalParametersMap
+    ) {
         AuthorizationRequest.Builder authRequestBuilder =
                 new AuthorizationRequest.Builder(
                         serviceConfiguration,
@@ -407,21 +995,111 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             authRequestBuilder.setCodeVerifier(null);
         }
 
-        AuthorizationRequest authRequest = authRequestBuilder.build();
+        return authRequestBuilder.build();
+    }
+
+    private void launchAuthorizationRequest(
+            final AuthorizationRequest authRequest,
+            final AuthorizationServiceConfiguration serviceConfiguration,
+            final AppAuthConfiguration appAuthConfiguration,
+            final Boolean preconnectTokenEndpoint
+    ) {
+        final Context context = this.reactContext;
+        final Activity currentActivity = getCurrentActivity();
+
+        TokenEndpointPreconnector tokenEndpointPreconnector = null;
+        if (preconnectTokenEndpoint) {
+            // warm up the token endpoint connection while the user is in the browser
+            tokenEndpointPreconnector = new TokenEndpointPreconnector(
+                    serviceConfiguration.tokenEndpoint,
+                    createConnectionBuilder(this.dangerouslyAllowInsecureHttpRequests, this.tokenRequestHeaders)
+            );
+            tokenEndpointPreconnector.start();
+        }
+
+        synchronized (pendingAuthorizations) {
+            pendingAuthorizations.put(authRequest.state, new PendingAuthorization(
+                    authRequest,
+                    this.promise,
+                    this.additionalParametersMap,
+                    this.clientSecret,
+                    this.dangerouslyAllowInsecureHttpRequests,
+                    this.tokenRequestHeaders,
+                    this.skipAccessTokenExpirationDate,
+                    tokenEndpointPreconnector
+            ));
+            lastLaunchedState = authRequest.state;
+        }
 
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
             AuthorizationService authService = new AuthorizationService(context, appAuthConfiguration);
             Intent authIntent = authService.getAuthorizationRequestIntent(authRequest);
 
             currentActivity.startActivityForResult(authIntent, 0);
+            authService.dispose();
         } else {
             AuthorizationService authService = new AuthorizationService(currentActivity, appAuthConfiguration);
             PendingIntent pendingIntent = currentActivity.createPendingResult(0, new Intent(), 0);
 
             authService.performAuthorizationRequest(authRequest, pendingIntent);
+            authService.dispose();
         }
     }
 
+    /*
+     * Push the authorization request in the background before the user taps login, so authorize
+     * can open the browser with a short request_uri URL immediately
+     */
+    private void prefetchPushedAuthorizationRequest(
+            final AuthorizationServiceConfiguration serviceConfiguration,
+            final String clientId,
+            @Nullable final String scopesString,
+            final String redirectUrl,
+            final Boolean usePKCE,
+            final Map<String, String> additionalParametersMap,
+            @Nullable final String clientSecret,
+            final String clientAuthMethod,
+            final ConnectionBuilder builder
+    ) {
+        final Uri endpoint = getDiscoveryEndpoint(serviceConfiguration, PushedAuthorizationRequests.DISCOVERY_ENDPOINT_KEY);
+        if (endpoint == null) {
+            return;
+        }
+
+        final String pushedRequestKey = PushedAuthorizationRequests.createCacheKey(
+                clientId,
+                redirectUrl,
+                scopesString,
+                usePKCE,
+                additionalParametersMap
+        );
+        final AuthorizationRequest authRequest = createAuthorizationRequest(
+                serviceConfiguration,
+                clientId,
+                scopesString,
+                redirectUrl,
+                usePKCE,
+                additionalParametersMap
+        );
+        final ClientAuthentication clientAuth = clientSecret != null
+                ? getClientAuthentication(clientSecret, clientAuthMethod)
+                : NoClientAuthentication.INSTANCE;
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    pushedAuthorizationRequests.put(
+                            pushedRequestKey,
+                            PushedAuthorizationRequests.push(authRequest, endpoint, clientAuth, builder)
+                    );
+                } catch (AuthorizationException | RuntimeException e) {
+                    Log.w(TAG, "Failed to push authorization request", e);
+                }
+            }
+        }, "RNAppAuth-par").start();
+    }
+
     /*
      * Refresh authentication token with the provided configuration
      */
@@ -435,17 +1113,62 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             final Map<String, String> additionalParametersMap,
             final String clientAuthMethod,
             final String clientSecret,
+            final Boolean skipAccessTokenExpirationDate,
             final Promise promise
     ) {
 
         String scopesString = null;
 
         if (scopes != null) {
-            scopesString = this.arrayToString(scopes);
+            scopesString = ArrayUtil.arrayToString(scopes);
         }
 
         final Context context = this.reactContext;
 
+        TokenRequest tokenRequest = createRefreshTokenRequest(
+                serviceConfiguration,
+                refreshToken,
+                clientId,
+                scopesString,
+                redirectUrl,
+                additionalParametersMap
+        );
+
+        final AuthorizationService authService = new AuthorizationService(context, appAuthConfiguration);
+
+        AuthorizationService.TokenResponseCallback tokenResponseCallback = new AuthorizationService.TokenResponseCallback() {
+            @Override
+            public void onTokenRequestCompleted(@Nullable TokenResponse response, @Nullable AuthorizationException ex) {
+                authService.dispose();
+                if (response != null) {
+                    WritableMap map = TokenResponseFactory.tokenResponseToMap(response, skipAccessTokenExpirationDate);
+                    promise.resolve(map);
+                } else {
+                    promise.reject("Failed to refresh token", getErrorMessage(ex));
+                }
+            }
+        };
+
+
+        if (clientSecret != null) {
+            ClientAuthentication clientAuth = getClientAuthentication(clientSecret, clientAuthMethod);
+            authService.performTokenRequest(tokenRequest, clientAuth, tokenResponseCallback);
+        } else {
+            authService.performTokenRequest(tokenRequest, tokenResponseCallback);
+        }
+    }
+
+    /*
+     * Build a refresh_token grant request
+     */
+    static TokenRequest createRefreshTokenRequest(
+            final AuthorizationServiceConfiguration serviceConfiguration,
+            final String refreshToken,
+            final String clientId,
+            @Nullable final String scopes,
+            final String redirectUrl,
+            final Map<String, String> additionalParametersMap
+    ) {
         TokenRequest.Builder tokenRequestBuilder =
                 new TokenRequest.Builder(
                         serviceConfiguration,
@@ -454,41 +1177,99 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
                         .setRefreshToken(refreshToken)
                         .setRedirectUri(Uri.parse(redirectUrl));
 
-        if (scopesString != null) {
-            tokenRequestBuilder.setScope(scopesString);
+        if (scopes != null) {
+            tokenRequestBuilder.setScope(scopes);
         }
 
         if (!additionalParametersMap.isEmpty()) {
             tokenRequestBuilder.setAdditionalParameters(additionalParametersMap);
         }
 
-        TokenRequest tokenRequest = tokenRequestBuilder.build();
+        return tokenRequestBuilder.build();
+    }
+
+    private synchronized BulkRefreshExecutor getBulkRefreshExecutor() {
+        if (bulkRefreshExecutor == null) {
+            bulkRefreshExecutor = new BulkRefreshExecutor();
+        }
+        return bulkRefreshExecutor;
+    }
 
-        AuthorizationService authService = new AuthorizationService(context, appAuthConfiguration);
+    private synchronized AuthenticatedHttpClient getAuthenticatedHttpClient() {
+        if (authenticatedHttpClient == null) {
+            authenticatedHttpClient = new AuthenticatedHttpClient(reactContext, getAccountRegistry());
+        }
+        return authenticatedHttpClient;
+    }
 
-        AuthorizationService.TokenResponseCallback tokenResponseCallback = new AuthorizationService.TokenResponseCallback() {
-            @Override
-            public void onTokenRequestCompleted(@Nullable TokenResponse response, @Nullable AuthorizationException ex) {
-                if (response != null) {
-                    WritableMap map = TokenResponseFactory.tokenResponseToMap(response);
-                    promise.resolve(map);
-                } else {
-                    promise.reject("Failed to refresh token", getErrorMessage(ex));
+    private synchronized UserInfoClient getUserInfoClient() {
+        if (userInfoClient == null) {
+            userInfoClient = new UserInfoClient();
+        }
+        return userInfoClient;
+    }
+
+    private synchronized TokenIntrospector getTokenIntrospector() {
+        if (tokenIntrospector == null) {
+            tokenIntrospector = new TokenIntrospector();
+        }
+        return tokenIntrospector;
+    }
+
+    private synchronized AccountRegistry getAccountRegistry() {
+        if (accountRegistry == null) {
+            accountRegistry = new AccountRegistry(reactContext, AccountRegistry.DEFAULT_MAX_HOT_ACCOUNTS, new AccountRegistry.Listener() {
+                @Override
+                public void onTokensRefreshed(AccountSession session) {
+                    if (reactContext.hasActiveCatalystInstance()) {
+                        reactContext
+                                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                                .emit(ACCOUNT_TOKENS_REFRESHED_EVENT, accountToMap(session));
+                    }
                 }
-            }
-        };
+            });
+        }
+        return accountRegistry;
+    }
 
+    /*
+     * Seed an AuthState with tokens previously obtained through authorize or refresh
+     */
+    private AuthState createAuthState(
+            AuthorizationServiceConfiguration serviceConfiguration,
+            String clientId,
+            ReadableMap tokens
+    ) {
+        TokenRequest tokenRequest = new TokenRequest.Builder(serviceConfiguration, clientId)
+                .setGrantType(GrantTypeValues.REFRESH_TOKEN)
+                .setRefreshToken(tokens.getString("refreshToken"))
+                .build();
 
-        if (clientSecret != null) {
-            ClientAuthentication clientAuth;
-            if (this.additionalParametersMap.containsKey("shouldPostAuth")){
-                clientAuth = new ClientSecretPost(this.clientSecret);
-            } else {
-                clientAuth = new ClientSecretBasic(this.clientSecret);
-            }
-        } else {
-            authService.performTokenRequest(tokenRequest, tokenResponseCallback);
+        TokenResponse.Builder tokenResponseBuilder = new TokenResponse.Builder(tokenRequest)
+                .setAccessToken(tokens.getString("accessToken"))
+                .setRefreshToken(tokens.getString("refreshToken"));
+
+        if (tokens.hasKey("idToken") && !tokens.isNull("idToken")) {
+            tokenResponseBuilder.setIdToken(tokens.getString("idToken"));
+        }
+        if (tokens.hasKey("tokenType") && !tokens.isNull("tokenType")) {
+            tokenResponseBuilder.setTokenType(tokens.getString("tokenType"));
+        }
+        if (tokens.hasKey("accessTokenExpirationTime") && !tokens.isNull("accessTokenExpirationTime")) {
+            tokenResponseBuilder.setAccessTokenExpirationTime((long) tokens.getDouble("accessTokenExpirationTime"));
         }
+
+        AuthState authState = new AuthState(serviceConfiguration);
+        authState.update(tokenResponseBuilder.build(), null);
+        return authState;
+    }
+
+    private static WritableMap accountToMap(AccountSession session) {
+        WritableMap map = TokenResponseFactory.tokenResponseToMap(session.authState.getLastTokenResponse(), false);
+        map.putString("accountId", session.accountId);
+        // the refresh token may have been rotated by an earlier refresh without a new one in the last response
+        map.putString("refreshToken", session.authState.getRefreshToken());
+        return map;
     }
 
     private void parseHeaderMap (ReadableMap headerMap) {
@@ -504,7 +1285,7 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
 
     }
 
-    private ClientAuthentication getClientAuthentication(String clientSecret, String clientAuthMethod) {
+    static ClientAuthentication getClientAuthentication(String clientSecret, String clientAuthMethod) {
         if (clientAuthMethod.equals("post")) {
             return new ClientSecretPost(clientSecret);
         }
@@ -521,24 +1302,10 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
         return ex.errorDescription;
     }
 
-    /*
-     * Create a space-delimited string from an array
-     */
-    private String arrayToString(ReadableArray array) {
-        StringBuilder strBuilder = new StringBuilder();
-        for (int i = 0; i < array.size(); i++) {
-            if (i != 0) {
-                strBuilder.append(' ');
-            }
-            strBuilder.append(array.getString(i));
-        }
-        return strBuilder.toString();
-    }
-
     /*
      * Create an App Auth configuration using the provided connection builder
      */
-    private AppAuthConfiguration createAppAuthConfiguration(ConnectionBuilder connectionBuilder) {
+    static AppAuthConfiguration createAppAuthConfiguration(ConnectionBuilder connectionBuilder) {
         return new AppAuthConfiguration
                 .Builder()
                 .setConnectionBuilder(connectionBuilder)
@@ -548,7 +1315,7 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
     /*
      *  Create appropriate connection builder based on provided settings
      */
-    private ConnectionBuilder createConnectionBuilder(Boolean allowInsecureConnections, Map<String, String> headers) {
+    static ConnectionBuilder createConnectionBuilder(Boolean allowInsecureConnections, Map<String, String> headers) {
         ConnectionBuilder proxiedBuilder;
 
         if (allowInsecureConnections.equals(true)) {
@@ -565,6 +1332,173 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
         return customConnection;
     }
 
+    /*
+     * An in-flight discovery request. Only callers connecting the same way (same insecure flag
+     * and headers) can share one
+     */
+    private static final class ConfigurationFetch {
+        final String issuer;
+        final ConnectionBuilder builder;
+
+        ConfigurationFetch(String issuer, ConnectionBuilder builder) {
+            this.issuer = issuer;
+            this.builder = builder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ConfigurationFetch)) {
+                return false;
+            }
+            ConfigurationFetch other = (ConfigurationFetch) o;
+            return issuer.equals(other.issuer) && builder.equals(other.builder);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * issuer.hashCode() + builder.hashCode();
+        }
+    }
+
+    /*
+     * Fetch the discovery document for the issuer, sharing a single network request between
+     * concurrent callers asking for the same issuer
+     */
+    private void fetchConfiguration(
+            final String issuer,
+            final AuthorizationServiceConfiguration.RetrieveConfigurationCallback callback,
+            final ConnectionBuilder builder
+    ) {
+        final ConfigurationFetch fetch = new ConfigurationFetch(issuer, builder);
+        synchronized (pendingConfigurationCallbacks) {
+            List<AuthorizationServiceConfiguration.RetrieveConfigurationCallback> pending = pendingConfigurationCallbacks.get(fetch);
+            if (pending != null) {
+                pending.add(callback);
+                return;
+            }
+            pending = new ArrayList<>();
+            pending.add(callback);
+            pendingConfigurationCallbacks.put(fetch, pending);
+        }
+
+        final Uri issuerUri = Uri.parse(issuer);
+        AuthorizationServiceConfiguration.fetchFromUrl(
+                buildConfigurationUriFromIssuer(issuerUri),
+                new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
+                    public void onFetchConfigurationCompleted(
+                            @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
+                            @Nullable AuthorizationException ex) {
+                        // only prefetchConfiguration, authorize and refresh adopt it as mServiceConfiguration
+                        if (fetchedConfiguration != null) {
+                            issuerConfigurations.put(issuer, fetchedConfiguration);
+                        }
+
+                        List<AuthorizationServiceConfiguration.RetrieveConfigurationCallback> waiting;
+                        synchronized (pendingConfigurationCallbacks) {
+                            waiting = pendingConfigurationCallbacks.remove(fetch);
+                        }
+                        for (AuthorizationServiceConfiguration.RetrieveConfigurationCallback waitingCallback : waiting) {
+                            waitingCallback.onFetchConfigurationCompleted(fetchedConfiguration, ex);
+                        }
+                    }
+                },
+                builder
+        );
+    }
+
+    /*
+     * The configuration of one issuer: from serviceConfiguration when given, otherwise its
+     * discovery document, fetched once per issuer. Unlike mServiceConfiguration, this never hands
+     * out the endpoints of another issuer
+     */
+    private void resolveIssuerConfiguration(
+            @Nullable String issuer,
+            @Nullable ReadableMap serviceConfiguration,
+            ConnectionBuilder builder,
+            AuthorizationServiceConfiguration.RetrieveConfigurationCallback callback
+    ) throws Exception {
+        if (serviceConfiguration != null) {
+            callback.onFetchConfigurationCompleted(createAuthorizationServiceConfiguration(serviceConfiguration), null);
+            return;
+        }
+        if (issuer == null) {
+            throw new Exception("Either issuer or serviceConfiguration must be provided");
+        }
+
+        AuthorizationServiceConfiguration cached = issuerConfigurations.get(issuer);
+        if (cached != null) {
+            callback.onFetchConfigurationCompleted(cached, null);
+        } else {
+            fetchConfiguration(issuer, callback, builder);
+        }
+    }
+
+    private interface EndpointCallback {
+        void onEndpointResolved(Uri endpoint);
+    }
+
+    /*
+     * Find an endpoint that AppAuth's configuration has no field for: from serviceConfiguration
+     * when given there, otherwise from the issuer's own discovery document. mServiceConfiguration
+     * may belong to another issuer, so it is never consulted
+     */
+    private void resolveEndpoint(
+            @Nullable String issuer,
+            @Nullable ReadableMap serviceConfiguration,
+            String serviceConfigurationKey,
+            final String discoveryKey,
+            ConnectionBuilder builder,
+            final String errorCode,
+            final Promise promise,
+            final EndpointCallback callback
+    ) {
+        if (serviceConfiguration != null && serviceConfiguration.hasKey(serviceConfigurationKey)) {
+            callback.onEndpointResolved(Uri.parse(serviceConfiguration.getString(serviceConfigurationKey)));
+            return;
+        }
+
+        if (issuer == null) {
+            promise.reject(errorCode, "serviceConfiguration passed without an " + serviceConfigurationKey);
+            return;
+        }
+
+        try {
+            resolveIssuerConfiguration(
+                    issuer,
+                    null,
+                    builder,
+                    new AuthorizationServiceConfiguration.RetrieveConfigurationCallback() {
+                        public void onFetchConfigurationCompleted(
+                                @Nullable AuthorizationServiceConfiguration fetchedConfiguration,
+                                @Nullable AuthorizationException ex) {
+                            if (ex != null) {
+                                promise.reject("Failed to fetch configuration", getErrorMessage(ex));
+                                return;
+                            }
+
+                            Uri endpoint = getDiscoveryEndpoint(fetchedConfiguration, discoveryKey);
+                            if (endpoint == null) {
+                                promise.reject(errorCode, "The openid config does not specify a " + discoveryKey);
+                                return;
+                            }
+                            callback.onEndpointResolved(endpoint);
+                        }
+                    });
+        } catch (Exception e) {
+            promise.reject(errorCode, e.getMessage());
+        }
+    }
+
+    @Nullable
+    static Uri getDiscoveryEndpoint(AuthorizationServiceConfiguration serviceConfiguration, String discoveryKey) {
+        if (serviceConfiguration.discoveryDoc == null) {
+            return null;
+        }
+
+        String endpoint = serviceConfiguration.discoveryDoc.docJson.optString(discoveryKey, null);
+        return endpoint != null ? Uri.parse(endpoint) : null;
+    }
+
     /*
      *  Replicated private method from AuthorizationServiceConfiguration
      */
@@ -599,6 +1533,7 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
     }
 
     private void warmChromeCustomTab(Context context, final String issuer) {
+        TraceUtil.beginSection("RNAppAuth.warmChromeCustomTab");
         CustomTabsServiceConnection connection = new CustomTabsServiceConnection() {
             @Override
             public void onCustomTabsServiceConnected(ComponentName name, CustomTabsClient client) {
@@ -612,15 +1547,11 @@ public class RNAppAuthModule extends ReactContextBaseJavaModule implements Activ
             }
         };
         CustomTabsClient.bindCustomTabsService(context, CUSTOM_TAB_PACKAGE_NAME, connection);
-    }
-
-    @Override
-    public void onNewIntent(Intent intent) {
-
+        TraceUtil.endSection();
     }
 
     @Override
     public String getName() {
-        return "RNAppAuth";
+        return NAME;
     }
 }
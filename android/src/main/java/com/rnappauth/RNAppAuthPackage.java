@@ -1,19 +1,59 @@
 package com.rnappauth;
 
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import com.facebook.react.ReactPackage;
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import com.facebook.react.uimanager.ViewManager;
 import com.facebook.react.bridge.JavaScriptModule;
 
-public class RNAppAuthPackage implements ReactPackage {
+import com.rnappauth.utils.TraceUtil;
+
+/*
+ * Lazily provides RNAppAuthModule so nothing is constructed until JS first touches it
+ */
+public class RNAppAuthPackage extends TurboReactPackage {
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+      if (!RNAppAuthModule.NAME.equals(name)) {
+        return null;
+      }
+
+      TraceUtil.beginSection("RNAppAuthPackage.getModule");
+      try {
+        return new RNAppAuthModule(reactContext);
+      } finally {
+        TraceUtil.endSection();
+      }
+    }
+
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-      return Arrays.<NativeModule>asList(new RNAppAuthModule(reactContext));
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+      return new ReactModuleInfoProvider() {
+        @Override
+        public Map<String, ReactModuleInfo> getReactModuleInfos() {
+          Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+          moduleInfos.put(
+                  RNAppAuthModule.NAME,
+                  new ReactModuleInfo(
+                          RNAppAuthModule.NAME,
+                          RNAppAuthModule.class.getName(),
+                          false, // canOverrideExistingModule
+                          false, // needsEagerInit
+                          false, // hasConstants
+                          false, // isCxxModule
+                          false  // isTurboModule
+                  )
+          );
+          return moduleInfos;
+        }
+      };
     }
 
     // Deprecated from RN 0.47
@@ -0,0 +1,201 @@
+package com.rnappauth;
+
+import android.content.Context;
+import android.os.FileObserver;
+import android.util.Base64;
+import androidx.annotation.Nullable;
+
+import com.rnappauth.utils.EncryptedStore;
+
+import org.json.JSONException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileLock;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Account sessions shared by every process of the app. Each account is an encrypted file in
+ * app-private storage that is replaced atomically, next to a lock file that lets processes take
+ * turns refreshing its tokens. Processes learn about each other's writes through a
+ * {@link FileObserver} on the directory. Requires API 23, like {@link EncryptedStore}.
+ */
+final class SharedAuthStateStore {
+
+    interface Listener {
+        void onAccountChanged(String accountId);
+    }
+
+    /**
+     * A held account lock, excluding other threads of this process and other processes alike.
+     */
+    static final class Lock {
+        private final ReentrantLock processLock;
+        private final RandomAccessFile file;
+        private final FileLock fileLock;
+
+        private Lock(ReentrantLock processLock, RandomAccessFile file, FileLock fileLock) {
+            this.processLock = processLock;
+            this.file = file;
+            this.fileLock = fileLock;
+        }
+
+        void release() {
+            try {
+                fileLock.release();
+                file.close();
+            } catch (IOException e) {
+                // closing the file releases the lock regardless
+            } finally {
+                processLock.unlock();
+            }
+        }
+    }
+
+    private static final String DIRECTORY = "RNAppAuthShared";
+    private static final String STATE_SUFFIX = ".state";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String UTF_8 = "UTF-8";
+
+    private final File directory;
+    private final EncryptedStore cipher;
+    // file locks are held per process, so threads of this process are excluded separately
+    private final Map<String, ReentrantLock> processLocks = new HashMap<>();
+    @Nullable private FileObserver observer;
+
+    SharedAuthStateStore(Context context) {
+        this.directory = new File(context.getFilesDir(), DIRECTORY);
+        this.cipher = new EncryptedStore(context.getApplicationContext(), DIRECTORY);
+    }
+
+    static boolean isSupported() {
+        return EncryptedStore.isSupported();
+    }
+
+    /*
+     * Block until this thread holds the account's lock across all processes
+     */
+    Lock lock(String accountId) throws IOException {
+        ReentrantLock processLock;
+        synchronized (processLocks) {
+            processLock = processLocks.get(accountId);
+            if (processLock == null) {
+                processLock = new ReentrantLock();
+                processLocks.put(accountId, processLock);
+            }
+        }
+
+        processLock.lock();
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(getFile(accountId, LOCK_SUFFIX), "rw");
+            return new Lock(processLock, file, file.getChannel().lock());
+        } catch (IOException e) {
+            if (file != null) {
+                file.close();
+            }
+            processLock.unlock();
+            throw e;
+        }
+    }
+
+    @Nullable
+    AccountSession read(String accountId) throws IOException, GeneralSecurityException, JSONException {
+        File file = getFile(accountId, STATE_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+
+        StringBuilder encrypted = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), UTF_8);
+        try {
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                encrypted.append(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return AccountSession.jsonDeserialize(accountId, cipher.decrypt(encrypted.toString()));
+    }
+
+    /*
+     * Replace the stored session in one rename, so readers never see a partial write
+     */
+    void write(AccountSession session) throws IOException, GeneralSecurityException {
+        String encrypted = cipher.encrypt(session.jsonSerializeString());
+        File temp = getFile(session.accountId, TEMP_SUFFIX);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(temp), UTF_8);
+        try {
+            writer.write(encrypted);
+        } finally {
+            writer.close();
+        }
+
+        if (!temp.renameTo(getFile(session.accountId, STATE_SUFFIX))) {
+            temp.delete();
+            throw new IOException("Failed to replace the shared state of account " + session.accountId);
+        }
+    }
+
+    void remove(String accountId) {
+        getFile(accountId, STATE_SUFFIX).delete();
+    }
+
+    /*
+     * Report accounts written or removed by any process, this one included
+     */
+    synchronized void startWatching(final Listener listener) {
+        if (observer != null) {
+            return;
+        }
+
+        directory.mkdirs();
+        observer = new FileObserver(directory.getPath(), FileObserver.MOVED_TO | FileObserver.DELETE) {
+            @Override
+            public void onEvent(int event, @Nullable String path) {
+                if (path != null && path.endsWith(STATE_SUFFIX)) {
+                    listener.onAccountChanged(decodeAccountId(path.substring(0, path.length() - STATE_SUFFIX.length())));
+                }
+            }
+        };
+        observer.startWatching();
+    }
+
+    private File getFile(String accountId, String suffix) {
+        directory.mkdirs();
+        return new File(directory, encodeAccountId(accountId) + suffix);
+    }
+
+    /*
+     * Account ids are chosen by the app, so encode them into safe file names
+     */
+    private static String encodeAccountId(String accountId) {
+        try {
+            return Base64.encodeToString(accountId.getBytes(UTF_8), Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+        } catch (IOException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+
+    private static String decodeAccountId(String fileName) {
+        try {
+            return new String(Base64.decode(fileName, Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP), UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+}
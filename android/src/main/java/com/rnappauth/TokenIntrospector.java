@@ -0,0 +1,161 @@
+package com.rnappauth;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.rnappauth.utils.ExecutorUtil;
+import com.rnappauth.utils.HashUtil;
+import com.rnappauth.utils.HttpUtil;
+
+import net.openid.appauth.ClientAuthentication;
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth 2.0 Token Introspection (RFC 7662). Results are cached by a hash of the token, never the
+ * token itself, for a short time that never outlives the token's own expiry. Concurrent
+ * introspections of the same token share one request.
+ */
+final class TokenIntrospector {
+
+    static final String DISCOVERY_ENDPOINT_KEY = "introspection_endpoint";
+
+    private static final int MAX_CACHED_TOKENS = 64;
+    private static final int MAX_CONCURRENCY = 2;
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final class CachedIntrospection {
+        final String body;
+        final long expiresAt;
+
+        CachedIntrospection(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final LruCache<String, CachedIntrospection> cache = new LruCache<>(MAX_CACHED_TOKENS);
+    private final Map<String, List<Promise>> pendingIntrospections = new HashMap<>();
+    private final ThreadPoolExecutor executor = ExecutorUtil.newBoundedExecutor("RNAppAuth-introspect-", MAX_CONCURRENCY);
+
+    /*
+     * Resolve with the introspection response as a JSON string
+     */
+    void introspect(
+            final Uri endpoint,
+            final String token,
+            @Nullable final String tokenTypeHint,
+            final String clientId,
+            final ClientAuthentication clientAuthentication,
+            final ConnectionBuilder connectionBuilder,
+            Promise promise
+    ) {
+        final String cacheKey = endpoint + "|" + HashUtil.sha256(token);
+
+        CachedIntrospection cached = cache.get(cacheKey);
+        if (cached != null && cached.expiresAt > SystemClock.elapsedRealtime()) {
+            promise.resolve(cached.body);
+            return;
+        }
+
+        synchronized (pendingIntrospections) {
+            List<Promise> pending = pendingIntrospections.get(cacheKey);
+            if (pending != null) {
+                pending.add(promise);
+                return;
+            }
+            pending = new ArrayList<>();
+            pending.add(promise);
+            pendingIntrospections.put(cacheKey, pending);
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                String body = null;
+                String error = null;
+                try {
+                    String response = performIntrospection(endpoint, token, tokenTypeHint, clientId, clientAuthentication, connectionBuilder);
+                    cacheResult(cacheKey, response);
+                    body = response;
+                } catch (IOException | JSONException | RuntimeException e) {
+                    error = e.getMessage();
+                } finally {
+                    // always leave the in-flight entry, later calls for the token would join it forever
+                    List<Promise> waiting;
+                    synchronized (pendingIntrospections) {
+                        waiting = pendingIntrospections.remove(cacheKey);
+                    }
+                    for (Promise waitingPromise : waiting) {
+                        if (body != null) {
+                            waitingPromise.resolve(body);
+                        } else {
+                            waitingPromise.reject("Failed to introspect token", error);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private static String performIntrospection(
+            Uri endpoint,
+            String token,
+            @Nullable String tokenTypeHint,
+            String clientId,
+            ClientAuthentication clientAuthentication,
+            ConnectionBuilder connectionBuilder
+    ) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("token", token);
+        parameters.put("token_type_hint", tokenTypeHint);
+        Map<String, String> clientAuthParameters = clientAuthentication.getRequestParameters(clientId);
+        if (clientAuthParameters != null) {
+            parameters.putAll(clientAuthParameters);
+        }
+
+        HttpURLConnection conn = HttpUtil.postForm(
+                connectionBuilder,
+                endpoint,
+                clientAuthentication.getRequestHeaders(clientId),
+                parameters
+        );
+        int status = conn.getResponseCode();
+        String body = HttpUtil.readResponse(conn);
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException("Introspection endpoint responded with status " + status);
+        }
+        return body;
+    }
+
+    /*
+     * Cache for CACHE_TTL_MS, but never past the exp of an active token
+     */
+    private void cacheResult(String cacheKey, String body) throws JSONException {
+        JSONObject json = new JSONObject(body);
+        long ttl = CACHE_TTL_MS;
+        if (json.optBoolean("active") && json.has("exp")) {
+            ttl = Math.min(ttl, TimeUnit.SECONDS.toMillis(json.getLong("exp")) - System.currentTimeMillis());
+        }
+
+        if (ttl > 0) {
+            cache.put(cacheKey, new CachedIntrospection(body, SystemClock.elapsedRealtime() + ttl));
+        } else {
+            cache.remove(cacheKey);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.rnappauth;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Base64;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.rnappauth.utils.ExecutorUtil;
+import com.rnappauth.utils.HashUtil;
+import com.rnappauth.utils.HttpUtil;
+
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches claims from the OpenID Connect userinfo endpoint. Responses are cached per subject for a
+ * short time, and once that has passed, or when asked with another access token, they are
+ * revalidated with If-None-Match, so a repeat lookup costs nothing or a 304. Tokens are only
+ * kept as hashes.
+ */
+final class UserInfoClient {
+
+    static final String DISCOVERY_ENDPOINT_KEY = "userinfo_endpoint";
+
+    private static final int MAX_CACHED_SUBJECTS = 16;
+    private static final int MAX_CONCURRENCY = 2;
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final class CachedUserInfo {
+        final String body;
+        @Nullable final String etag;
+        // hash of the access token the body was last served for
+        final String accessTokenHash;
+        final long expiresAt;
+
+        CachedUserInfo(String body, @Nullable String etag, String accessTokenHash, long expiresAt) {
+            this.body = body;
+            this.etag = etag;
+            this.accessTokenHash = accessTokenHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final LruCache<String, CachedUserInfo> cache = new LruCache<>(MAX_CACHED_SUBJECTS);
+    private final ThreadPoolExecutor executor = ExecutorUtil.newBoundedExecutor("RNAppAuth-userinfo-", MAX_CONCURRENCY);
+
+    /*
+     * Resolve with the userinfo response as a JSON string. When an ID token is given, its subject
+     * keys the cache and the response is checked to be about the same subject
+     */
+    void fetch(
+            final Uri endpoint,
+            final String accessToken,
+            @Nullable final String idToken,
+            final ConnectionBuilder connectionBuilder,
+            final Promise promise
+    ) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    promise.resolve(fetchUserInfo(endpoint, accessToken, idToken, connectionBuilder));
+                } catch (IOException e) {
+                    promise.reject("Failed to fetch user info", e.getMessage());
+                } catch (JSONException e) {
+                    promise.reject("Failed to fetch user info", e.getMessage());
+                } catch (RuntimeException e) {
+                    promise.reject("Failed to fetch user info", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private String fetchUserInfo(
+            Uri endpoint,
+            String accessToken,
+            @Nullable String idToken,
+            ConnectionBuilder connectionBuilder
+    ) throws IOException, JSONException {
+        // without an ID token only repeat lookups with the same access token can share an entry
+        String accessTokenHash = HashUtil.sha256(accessToken);
+        String subject = idToken != null ? getSubject(idToken) : null;
+        String cacheKey = endpoint + "|" + (subject != null ? "sub:" + subject : "token:" + accessTokenHash);
+
+        // a different access token may be revoked or narrower, so the server has to accept it
+        // first, which costs a 304 at most
+        CachedUserInfo cached = cache.get(cacheKey);
+        if (cached != null
+                && cached.accessTokenHash.equals(accessTokenHash)
+                && cached.expiresAt > SystemClock.elapsedRealtime()) {
+            return cached.body;
+        }
+
+        HttpURLConnection conn = connectionBuilder.openConnection(endpoint);
+        conn.setRequestMethod("GET");
+        conn.setRequestProperty("Accept", "application/json");
+        conn.setRequestProperty("Authorization", "Bearer " + accessToken);
+        if (cached != null && cached.etag != null) {
+            conn.setRequestProperty("If-None-Match", cached.etag);
+        }
+
+        int status = conn.getResponseCode();
+        String body = HttpUtil.readResponse(conn);
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            cache.put(cacheKey, new CachedUserInfo(cached.body, cached.etag, accessTokenHash, SystemClock.elapsedRealtime() + CACHE_TTL_MS));
+            return cached.body;
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            cache.remove(cacheKey);
+            throw new IllegalStateException("Userinfo endpoint responded with status " + status);
+        }
+
+        String responseSubject = new JSONObject(body).getString("sub");
+        if (subject != null && !subject.equals(responseSubject)) {
+            throw new IllegalStateException("Userinfo subject does not match the ID token subject");
+        }
+
+        cache.put(cacheKey, new CachedUserInfo(body, conn.getHeaderField("ETag"), accessTokenHash, SystemClock.elapsedRealtime() + CACHE_TTL_MS));
+        return body;
+    }
+
+    /*
+     * Read the sub claim from the ID token payload. The token was validated when it was issued,
+     * here it only selects the cache entry
+     */
+    private static String getSubject(String idToken) throws JSONException {
+        String[] parts = idToken.split("\\.");
+        if (parts.length < 2) {
+            throw new JSONException("ID token is not a JWT");
+        }
+
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            return new JSONObject(new String(payload, "UTF-8")).getString("sub");
+        } catch (IllegalArgumentException e) {
+            throw new JSONException("ID token payload is not valid base64");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rnappauth.utils;
+
+import com.facebook.react.bridge.ReadableArray;
+
+public final class ArrayUtil {
+
+    /*
+     * Create a space-delimited string from an array
+     */
+    public static String arrayToString(ReadableArray array) {
+        final int size = array.size();
+        if (size == 1) {
+            return array.getString(0);
+        }
+
+        StringBuilder strBuilder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i != 0) {
+                strBuilder.append(' ');
+            }
+            strBuilder.append(array.getString(i));
+        }
+        return strBuilder.toString();
+    }
+}
@@ -55,4 +55,22 @@ public final class CustomConnectionBuilder implements ConnectionBuilder {
 
         return conn;
     }
+
+    /*
+     * Builders that connect the same way are interchangeable, which lets requests be shared
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CustomConnectionBuilder)) {
+            return false;
+        }
+        CustomConnectionBuilder other = (CustomConnectionBuilder) o;
+        return connectionBuilder.equals(other.connectionBuilder)
+                && (headers != null ? headers.equals(other.headers) : other.headers == null);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * connectionBuilder.hashCode() + (headers != null ? headers.hashCode() : 0);
+    }
 }
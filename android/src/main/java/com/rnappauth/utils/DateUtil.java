@@ -6,10 +6,79 @@ import java.util.Locale;
 import java.util.TimeZone;
 
 public final class DateUtil {
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    // days between 0000-03-01 and 1970-01-01 in the proleptic Gregorian calendar
+    private static final long EPOCH_DAY_OFFSET = 719468L;
+
+    // SimpleDateFormat switches to the Julian calendar before the Gregorian cutover
+    private static final long GREGORIAN_CUTOVER_YEAR = 1583L;
+
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char["yyyy-MM-ddTHH:mm:ssZ".length()];
+        }
+    };
+
+    /*
+     * Format epoch millis as an ISO 8601 UTC timestamp, e.g. 2019-01-31T13:45:00Z
+     */
     public static final String formatTimestamp(Long timestamp) {
-        Date expirationDate = new Date(timestamp);
+        final long millis = timestamp;
+        long days = millis / MILLIS_PER_DAY;
+        long millisOfDay = millis % MILLIS_PER_DAY;
+        if (millisOfDay < 0) {
+            days--;
+            millisOfDay += MILLIS_PER_DAY;
+        }
+
+        // civil-from-days conversion, see http://howardhinnant.github.io/date_algorithms.html
+        final long z = days + EPOCH_DAY_OFFSET;
+        final long era = (z >= 0 ? z : z - 146096) / 146097;
+        final long dayOfEra = z - era * 146097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < GREGORIAN_CUTOVER_YEAR || year > 9999) {
+            return formatWithSimpleDateFormat(millis);
+        }
+
+        final int secondOfDay = (int) (millisOfDay / 1000);
+        final char[] buffer = BUFFER.get();
+        writeDigits(buffer, 0, (int) year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, month, 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, day, 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, secondOfDay / 3600, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, (secondOfDay / 60) % 60, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, secondOfDay % 60, 2);
+        buffer[19] = 'Z';
+
+        return new String(buffer);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /*
+     * Fallback for dates outside the Gregorian four digit year range
+     */
+    private static String formatWithSimpleDateFormat(long timestamp) {
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
         formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
-        return formatter.format(expirationDate);
+        return formatter.format(new Date(timestamp));
     }
 }
@@ -0,0 +1,150 @@
+package com.rnappauth.utils;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * A string key-value store backed by private {@link SharedPreferences}, with every value encrypted
+ * using AES/GCM under a key that never leaves the Android Keystore. Requires API 23.
+ */
+@TargetApi(Build.VERSION_CODES.M)
+public final class EncryptedStore {
+
+    private static final String ANDROID_KEY_STORE = "AndroidKeyStore";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String KEY_LOCK_SUFFIX = ".keylock";
+    // file locks are held per process, so threads of this process are excluded separately
+    private static final Object KEY_CREATION_LOCK = new Object();
+
+    private final SharedPreferences preferences;
+    private final String keyAlias;
+    private final File keyLockFile;
+
+    public EncryptedStore(Context context, String name) {
+        this.preferences = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+        this.keyAlias = name;
+        this.keyLockFile = new File(context.getFilesDir(), name + KEY_LOCK_SUFFIX);
+    }
+
+    public static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+    }
+
+    public void put(String key, String value) throws GeneralSecurityException {
+        preferences.edit().putString(key, encrypt(value)).apply();
+    }
+
+    @Nullable
+    public String get(String key) throws GeneralSecurityException {
+        String encoded = preferences.getString(key, null);
+        return encoded != null ? decrypt(encoded) : null;
+    }
+
+    /*
+     * Encrypt a value under this store's key, for callers that keep the result elsewhere
+     */
+    public String encrypt(String value) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, getOrCreateKey());
+        byte[] iv = cipher.getIV();
+        byte[] cipherText = cipher.doFinal(value.getBytes(UTF_8));
+
+        byte[] payload = new byte[iv.length + cipherText.length];
+        System.arraycopy(iv, 0, payload, 0, iv.length);
+        System.arraycopy(cipherText, 0, payload, iv.length, cipherText.length);
+        return Base64.encodeToString(payload, Base64.NO_WRAP);
+    }
+
+    public String decrypt(String encoded) throws GeneralSecurityException {
+        byte[] payload = Base64.decode(encoded, Base64.NO_WRAP);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, getOrCreateKey(), new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+        return new String(cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH), UTF_8);
+    }
+
+    public void remove(String key) {
+        preferences.edit().remove(key).apply();
+    }
+
+    private SecretKey getOrCreateKey() throws GeneralSecurityException {
+        SecretKey key = getKey();
+        if (key != null) {
+            return key;
+        }
+
+        /*
+         * Another process of the app may be creating the key at the same time, and the second key
+         * would replace the first along with everything encrypted under it. Look again while
+         * holding a lock both processes take
+         */
+        synchronized (KEY_CREATION_LOCK) {
+            RandomAccessFile file = null;
+            try {
+                file = new RandomAccessFile(keyLockFile, "rw");
+                FileLock lock = file.getChannel().lock();
+                try {
+                    key = getKey();
+                    return key != null ? key : createKey();
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new GeneralSecurityException("Failed to lock the key " + keyAlias, e);
+            } finally {
+                if (file != null) {
+                    try {
+                        file.close();
+                    } catch (IOException e) {
+                        // closing the file releases the lock regardless
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private SecretKey getKey() throws GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(ANDROID_KEY_STORE);
+        try {
+            keyStore.load(null);
+        } catch (IOException e) {
+            throw new GeneralSecurityException("Failed to load the Android Keystore", e);
+        }
+
+        KeyStore.Entry entry = keyStore.getEntry(keyAlias, null);
+        return entry instanceof KeyStore.SecretKeyEntry ? ((KeyStore.SecretKeyEntry) entry).getSecretKey() : null;
+    }
+
+    private SecretKey createKey() throws GeneralSecurityException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, ANDROID_KEY_STORE);
+        keyGenerator.init(
+                new KeyGenParameterSpec.Builder(keyAlias, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                        .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                        .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                        .build()
+        );
+        return keyGenerator.generateKey();
+    }
+}
@@ -0,0 +1,97 @@
+package com.rnappauth.utils;
+
+import android.net.Uri;
+import androidx.annotation.Nullable;
+
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.util.Map;
+
+public final class HttpUtil {
+
+    private static final String UTF_8 = "UTF-8";
+
+    /*
+     * POST url-encoded form parameters through the given connection builder
+     */
+    public static final HttpURLConnection postForm(
+            ConnectionBuilder connectionBuilder,
+            Uri uri,
+            @Nullable Map<String, String> headers,
+            Map<String, String> parameters
+    ) throws IOException {
+        HttpURLConnection conn = connectionBuilder.openConnection(uri);
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        conn.setRequestProperty("Accept", "application/json");
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+
+        byte[] body = formUrlEncode(parameters).getBytes(UTF_8);
+        conn.setDoOutput(true);
+        conn.setFixedLengthStreamingMode(body.length);
+        OutputStream out = conn.getOutputStream();
+        try {
+            out.write(body);
+        } finally {
+            out.close();
+        }
+
+        return conn;
+    }
+
+    /*
+     * Read the response body, or the error body for non-2xx responses. The stream is fully
+     * consumed so the connection can go back to the keep-alive pool
+     */
+    public static final String readResponse(HttpURLConnection conn) throws IOException {
+        InputStream stream = conn.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST
+                ? conn.getErrorStream()
+                : conn.getInputStream();
+        if (stream == null) {
+            return "";
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString(UTF_8);
+        } finally {
+            stream.close();
+        }
+    }
+
+    public static final String formUrlEncode(Map<String, String> parameters) {
+        StringBuilder body = new StringBuilder();
+        try {
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                if (parameter.getValue() == null) {
+                    continue;
+                }
+                if (body.length() > 0) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(parameter.getKey(), UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(parameter.getValue(), UTF_8));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+        return body.toString();
+    }
+}
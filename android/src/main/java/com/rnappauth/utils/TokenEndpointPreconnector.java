@@ -0,0 +1,108 @@
+package com.rnappauth.utils;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import net.openid.appauth.connectivity.ConnectionBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves and handshakes a connection to the token endpoint in the background while the user is
+ * busy in the browser, so the code exchange can reuse the pooled keep-alive connection instead of
+ * paying DNS, TCP and TLS setup after the redirect. HttpURLConnection does not say whether a
+ * request got a pooled socket, so the status only tells whether the warm-up request completed in
+ * time, not that the exchange actually reused its connection.
+ */
+public final class TokenEndpointPreconnector {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_READY = "ready";
+    public static final String STATUS_EXPIRED = "expired";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final String TAG = "RNAppAuthPreconnect";
+
+    // default keep-alive duration of the platform HttpURLConnection pool
+    private static final long KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_CONCURRENCY = 2;
+
+    // shared by all authorizations, a burst of them queues instead of starting a thread each
+    private static final ThreadPoolExecutor executor = ExecutorUtil.newBoundedExecutor("RNAppAuth-preconnect-", MAX_CONCURRENCY);
+
+    private final Uri tokenEndpoint;
+    private final ConnectionBuilder connectionBuilder;
+    private volatile boolean failed = false;
+    private volatile long connectedAt = -1;
+
+    public TokenEndpointPreconnector(Uri tokenEndpoint, ConnectionBuilder connectionBuilder) {
+        this.tokenEndpoint = tokenEndpoint;
+        this.connectionBuilder = connectionBuilder;
+    }
+
+    public void start() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                preconnect();
+            }
+        });
+    }
+
+    /*
+     * Whether the warm-up request had completed, within the keep-alive window, when the code
+     * exchange starts now. Ready does not prove the exchange reused the socket, the pool may
+     * still have dropped it
+     */
+    public String getStatus() {
+        if (failed) {
+            return STATUS_FAILED;
+        }
+        if (connectedAt < 0) {
+            return STATUS_PENDING;
+        }
+        if (SystemClock.elapsedRealtime() - connectedAt > KEEP_ALIVE_MS) {
+            return STATUS_EXPIRED;
+        }
+        return STATUS_READY;
+    }
+
+    private void preconnect() {
+        HttpURLConnection conn;
+        int status;
+        try {
+            InetAddress.getAllByName(tokenEndpoint.getHost());
+            conn = connectionBuilder.openConnection(tokenEndpoint);
+            conn.setRequestMethod("HEAD");
+            // token endpoints often answer HEAD with 400 or 405, but any response means DNS,
+            // TCP and TLS are done
+            status = conn.getResponseCode();
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Failed to preconnect to token endpoint", e);
+            failed = true;
+            return;
+        }
+
+        connectedAt = SystemClock.elapsedRealtime();
+
+        // a HEAD response has no body, closing its empty stream hands the socket back to the
+        // keep-alive pool. Error responses without a body have no stream and are already released.
+        // Never disconnect from here on, that would close the warm socket
+        try {
+            InputStream stream = status >= HttpURLConnection.HTTP_BAD_REQUEST
+                    ? conn.getErrorStream()
+                    : conn.getInputStream();
+            if (stream != null) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to release preconnected socket", e);
+        }
+    }
+}
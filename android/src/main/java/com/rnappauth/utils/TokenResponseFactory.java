@@ -9,7 +9,6 @@ import com.facebook.react.bridge.WritableMap;
 import net.openid.appauth.AuthorizationResponse;
 import net.openid.appauth.TokenResponse;
 
-import java.util.Iterator;
 import java.util.Map;
 
 public final class TokenResponseFactory {
@@ -17,12 +16,8 @@ public final class TokenResponseFactory {
         WritableMap additionalParametersMap = Arguments.createMap();
 
         if (!additionalParameters.isEmpty()) {
-
-            Iterator<String> iterator = additionalParameters.keySet().iterator();
-
-            while(iterator.hasNext()) {
-                String key = iterator.next();
-                additionalParametersMap.putString(key, additionalParameters.get(key));
+            for (Map.Entry<String, String> parameter : additionalParameters.entrySet()) {
+                additionalParametersMap.putString(parameter.getKey(), parameter.getValue());
             }
         }
 
@@ -44,10 +39,24 @@ public final class TokenResponseFactory {
     }
 
 
+    /*
+     * Expose the expiry as epoch millis so JS can schedule refreshes without parsing dates
+     */
+    private static final void putAccessTokenExpiration(WritableMap map, TokenResponse response, boolean skipAccessTokenExpirationDate) {
+        if (response.accessTokenExpirationTime == null) {
+            return;
+        }
+
+        map.putDouble("accessTokenExpirationTime", response.accessTokenExpirationTime);
+        if (!skipAccessTokenExpirationDate) {
+            map.putString("accessTokenExpirationDate", DateUtil.formatTimestamp(response.accessTokenExpirationTime));
+        }
+    }
+
     /*
      * Read raw token response into a React Native map to be passed down the bridge
      */
-    public static final WritableMap tokenResponseToMap(TokenResponse response) {
+    public static final WritableMap tokenResponseToMap(TokenResponse response, boolean skipAccessTokenExpirationDate) {
         WritableMap map = Arguments.createMap();
 
         map.putString("accessToken", response.accessToken);
@@ -56,9 +65,7 @@ public final class TokenResponseFactory {
         map.putString("refreshToken", response.refreshToken);
         map.putString("tokenType", response.tokenType);
 
-        if (response.accessTokenExpirationTime != null) {
-            map.putString("accessTokenExpirationDate", DateUtil.formatTimestamp(response.accessTokenExpirationTime));
-        }
+        putAccessTokenExpiration(map, response, skipAccessTokenExpirationDate);
 
         return map;
     }
@@ -66,7 +73,7 @@ public final class TokenResponseFactory {
     /*
      * Read raw token response into a React Native map to be passed down the bridge
      */
-    public static final WritableMap tokenResponseToMap(TokenResponse response, AuthorizationResponse authResponse) {
+    public static final WritableMap tokenResponseToMap(TokenResponse response, AuthorizationResponse authResponse, boolean skipAccessTokenExpirationDate) {
         WritableMap map = Arguments.createMap();
 
         map.putString("accessToken", response.accessToken);
@@ -78,10 +85,7 @@ public final class TokenResponseFactory {
         map.putString("tokenType", response.tokenType);
         map.putArray("scopes", createScopeArray(authResponse.scope));
 
-        if (response.accessTokenExpirationTime != null) {
-            map.putString("accessTokenExpirationDate", DateUtil.formatTimestamp(response.accessTokenExpirationTime));
-        }
-
+        putAccessTokenExpiration(map, response, skipAccessTokenExpirationDate);
 
         return map;
     }
@@ -0,0 +1,21 @@
+package com.rnappauth.utils;
+
+import android.os.Build;
+import android.os.Trace;
+
+/*
+ * Systrace sections for the library's setup work, no-ops below API 18
+ */
+public final class TraceUtil {
+    public static final void beginSection(String sectionName) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    public static final void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
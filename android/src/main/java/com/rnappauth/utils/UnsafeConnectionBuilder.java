@@ -77,10 +77,18 @@ public final class UnsafeConnectionBuilder implements ConnectionBuilder {
         }
     };
 
-    @Nullable
-    private static final SSLContext TRUSTING_CONTEXT;
+    /*
+     * Holder idiom: the trusting SSLContext (and its SecureRandom) is only built the first time
+     * an https connection is opened, not when the class is loaded
+     */
+    private static final class TrustingContextHolder {
+        @Nullable
+        static final SSLContext TRUSTING_CONTEXT = createTrustingContext();
+    }
 
-    static {
+    @Nullable
+    private static SSLContext createTrustingContext() {
+        TraceUtil.beginSection("RNAppAuth.createTrustingSSLContext");
         SSLContext context;
         try {
             context = SSLContext.getInstance("SSL");
@@ -99,7 +107,8 @@ public final class UnsafeConnectionBuilder implements ConnectionBuilder {
             }
         }
 
-        TRUSTING_CONTEXT = initializedContext;
+        TraceUtil.endSection();
+        return initializedContext;
     }
 
     private UnsafeConnectionBuilder() {
@@ -117,9 +126,9 @@ public final class UnsafeConnectionBuilder implements ConnectionBuilder {
         conn.setReadTimeout(READ_TIMEOUT_MS);
         conn.setInstanceFollowRedirects(false);
 
-        if (conn instanceof HttpsURLConnection && TRUSTING_CONTEXT != null) {
+        if (conn instanceof HttpsURLConnection && TrustingContextHolder.TRUSTING_CONTEXT != null) {
             HttpsURLConnection httpsConn = (HttpsURLConnection) conn;
-            httpsConn.setSSLSocketFactory(TRUSTING_CONTEXT.getSocketFactory());
+            httpsConn.setSSLSocketFactory(TrustingContextHolder.TRUSTING_CONTEXT.getSocketFactory());
             httpsConn.setHostnameVerifier(ANY_HOSTNAME_VERIFIER);
         }
 
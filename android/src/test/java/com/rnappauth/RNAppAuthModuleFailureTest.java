@@ -0,0 +1,188 @@
+package com.rnappauth;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.rnappauth.loadtest.MockIdentityProvider;
+import com.rnappauth.loadtest.ModuleHarness;
+import com.rnappauth.loadtest.Settlement;
+import com.rnappauth.loadtest.ShadowArguments;
+import com.rnappauth.loadtest.ShadowAuthorizationService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Failures that are not I/O errors, such as the default connection builder refusing a plain http
+ * endpoint, still have to settle every promise they affect. Robolectric has no Android Keystore,
+ * so every attempt to store an account fails here too.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(
+        sdk = 28,
+        shadows = { ShadowArguments.class, ShadowAuthorizationService.class },
+        instrumentedPackages = { "com.facebook.react.bridge", "net.openid.appauth" }
+)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class RNAppAuthModuleFailureTest {
+
+    private MockIdentityProvider identityProvider;
+    private ModuleHarness harness;
+
+    @Before
+    public void setUp() throws Exception {
+        ShadowAuthorizationService.reset();
+        identityProvider = new MockIdentityProvider(0, 0);
+        identityProvider.start();
+        harness = new ModuleHarness();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        identityProvider.stop();
+    }
+
+    @Test
+    public void refreshManyReportsRefusedConnectionsAndFreesTheHost() throws Exception {
+        // more requests than the per-host limit, so the last one waits for a slot to be handed on
+        int count = BulkRefreshExecutor.MAX_CONCURRENCY_PER_HOST + 1;
+        JavaOnlyArray specs = new JavaOnlyArray();
+        for (int i = 0; i < count; i++) {
+            specs.pushMap(createRefreshSpec(i == count - 1));
+        }
+
+        Settlement batch = new Settlement();
+        harness.module.refreshMany(specs, batch.promise);
+        batch.await();
+
+        assertTrue(batch.error, batch.resolved);
+        ReadableArray results = (ReadableArray) batch.value;
+        for (int i = 0; i < count - 1; i++) {
+            assertEquals("Failed to refresh token", results.getMap(i).getString("error"));
+        }
+        assertFalse(results.getMap(count - 1).hasKey("error"));
+        assertEquals(1, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+    }
+
+    @Test
+    public void introspectSettlesJoinedCallsAndForgetsTheFailedRequest() throws Exception {
+        Settlement first = new Settlement();
+        Settlement joined = new Settlement();
+        introspect(first);
+        introspect(joined);
+        first.await();
+        joined.await();
+
+        assertFalse(first.resolved);
+        assertFalse(joined.resolved);
+
+        Settlement later = new Settlement();
+        introspect(later);
+        later.await();
+        assertFalse(later.resolved);
+        assertEquals(0, identityProvider.getRequestCount(MockIdentityProvider.INTROSPECTION));
+    }
+
+    @Test
+    public void getUserInfoRejectsARefusedConnection() throws Exception {
+        Settlement userInfo = new Settlement();
+        harness.module.getUserInfo(
+                null,
+                JavaOnlyMap.of("userInfoEndpoint", identityProvider.getUserInfoEndpoint()),
+                "access-token",
+                null,
+                false,
+                null,
+                userInfo.promise
+        );
+        userInfo.await();
+
+        assertFalse(userInfo.resolved);
+        assertEquals(0, identityProvider.getRequestCount(MockIdentityProvider.USERINFO));
+    }
+
+    @Test
+    public void authenticatedFetchRejectsARefusedConnection() throws Exception {
+        addAccount("account");
+
+        Settlement fetch = new Settlement();
+        harness.module.authenticatedFetch("account", identityProvider.getUserInfoEndpoint(), new JavaOnlyMap(), fetch.promise);
+        fetch.await();
+
+        assertFalse(fetch.resolved);
+        assertEquals(0, identityProvider.getRequestCount(MockIdentityProvider.USERINFO));
+    }
+
+    @Test
+    public void sharedAccountsThatFailedToStoreStayInMemory() throws Exception {
+        Settlement shared = new Settlement();
+        harness.module.enableSharedAuthState(shared.promise);
+        shared.await();
+        assertTrue(shared.error, shared.resolved);
+
+        // one more account than are kept in memory, so the first one would be evicted
+        for (int i = 0; i <= AccountRegistry.DEFAULT_MAX_HOT_ACCOUNTS; i++) {
+            addAccount("account-" + i);
+        }
+
+        Settlement first = new Settlement();
+        harness.module.switchAccount("account-0", first.promise);
+        first.await();
+        assertTrue(first.error, first.resolved);
+    }
+
+    private void addAccount(String accountId) throws InterruptedException {
+        Settlement account = new Settlement();
+        harness.module.addAccount(
+                accountId,
+                null,
+                ModuleHarness.REDIRECT_URL,
+                ModuleHarness.CLIENT_ID,
+                ModuleHarness.CLIENT_SECRET,
+                ModuleHarness.createScopes(),
+                null,
+                ModuleHarness.createServiceConfiguration(identityProvider),
+                "basic",
+                false,
+                null,
+                JavaOnlyMap.of("accessToken", "access-token", "refreshToken", "refresh-token"),
+                account.promise
+        );
+        account.await();
+        assertTrue(account.error, account.resolved);
+    }
+
+    private void introspect(Settlement settlement) {
+        harness.module.introspect(
+                null,
+                ModuleHarness.CLIENT_ID,
+                ModuleHarness.CLIENT_SECRET,
+                JavaOnlyMap.of("introspectionEndpoint", identityProvider.getIntrospectionEndpoint()),
+                "basic",
+                false,
+                null,
+                "access-token",
+                null,
+                settlement.promise
+        );
+    }
+
+    private JavaOnlyMap createRefreshSpec(boolean allowInsecure) {
+        return JavaOnlyMap.of(
+                "clientId", ModuleHarness.CLIENT_ID,
+                "redirectUrl", ModuleHarness.REDIRECT_URL,
+                "refreshToken", "refresh-token",
+                "serviceConfiguration", ModuleHarness.createServiceConfiguration(identityProvider),
+                "dangerouslyAllowInsecureHttpRequests", allowInsecure
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package com.rnappauth;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.rnappauth.loadtest.MockIdentityProvider;
+import com.rnappauth.loadtest.ModuleHarness;
+import com.rnappauth.loadtest.Settlement;
+import com.rnappauth.loadtest.ShadowArguments;
+import com.rnappauth.loadtest.ShadowAuthorizationService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Calls that name an issuer must only ever reach that issuer's endpoints, whatever configuration
+ * an earlier call for another issuer left behind.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(
+        sdk = 28,
+        shadows = { ShadowArguments.class, ShadowAuthorizationService.class },
+        instrumentedPackages = { "com.facebook.react.bridge", "net.openid.appauth" }
+)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class RNAppAuthModuleIssuerTest {
+
+    private MockIdentityProvider firstIssuer;
+    private MockIdentityProvider secondIssuer;
+    private ModuleHarness harness;
+
+    @Before
+    public void setUp() throws Exception {
+        ShadowAuthorizationService.reset();
+        firstIssuer = new MockIdentityProvider(0, 0);
+        firstIssuer.start();
+        secondIssuer = new MockIdentityProvider(0, 0);
+        secondIssuer.start();
+        harness = new ModuleHarness();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        firstIssuer.stop();
+        secondIssuer.stop();
+    }
+
+    @Test
+    public void refreshManyForAnotherIssuerDoesNotRedirectLaterRefreshes() throws Exception {
+        Settlement batch = new Settlement();
+        harness.module.refreshMany(JavaOnlyArray.of(JavaOnlyMap.of(
+                "issuer", secondIssuer.getIssuer(),
+                "clientId", ModuleHarness.CLIENT_ID,
+                "redirectUrl", ModuleHarness.REDIRECT_URL,
+                "refreshToken", "refresh-token-second",
+                "dangerouslyAllowInsecureHttpRequests", true
+        )), batch.promise);
+        batch.await();
+        assertTrue(batch.error, batch.resolved);
+
+        Settlement refresh = new Settlement();
+        refresh(firstIssuer, refresh.promise);
+        refresh.await();
+
+        assertTrue(refresh.error, refresh.resolved);
+        assertEquals(0, refresh.settledAgain);
+        assertEquals(1, firstIssuer.getRequestCount(MockIdentityProvider.TOKEN));
+        assertEquals(1, secondIssuer.getRequestCount(MockIdentityProvider.TOKEN));
+    }
+
+    @Test
+    public void getUserInfoAsksTheGivenIssuer() throws Exception {
+        refreshFromFirstIssuer();
+
+        Settlement userInfo = new Settlement();
+        harness.module.getUserInfo(secondIssuer.getIssuer(), null, "access-token", null, true, null, userInfo.promise);
+        userInfo.await();
+
+        assertTrue(userInfo.error, userInfo.resolved);
+        assertEquals(0, firstIssuer.getRequestCount(MockIdentityProvider.USERINFO));
+        assertEquals(1, secondIssuer.getRequestCount(MockIdentityProvider.USERINFO));
+    }
+
+    @Test
+    public void introspectAsksTheGivenIssuer() throws Exception {
+        refreshFromFirstIssuer();
+
+        Settlement introspection = new Settlement();
+        harness.module.introspect(
+                secondIssuer.getIssuer(),
+                ModuleHarness.CLIENT_ID,
+                ModuleHarness.CLIENT_SECRET,
+                null,
+                "basic",
+                true,
+                null,
+                "access-token",
+                null,
+                introspection.promise
+        );
+        introspection.await();
+
+        assertTrue(introspection.error, introspection.resolved);
+        assertEquals(0, firstIssuer.getRequestCount(MockIdentityProvider.INTROSPECTION));
+        assertEquals(1, secondIssuer.getRequestCount(MockIdentityProvider.INTROSPECTION));
+    }
+
+    /*
+     * Leave the first issuer's configuration behind as the module-wide one
+     */
+    private void refreshFromFirstIssuer() throws InterruptedException {
+        Settlement refresh = new Settlement();
+        refresh(firstIssuer, refresh.promise);
+        refresh.await();
+        assertTrue(refresh.error, refresh.resolved);
+    }
+
+    private void refresh(MockIdentityProvider identityProvider, Promise promise) {
+        harness.module.refresh(
+                identityProvider.getIssuer(),
+                ModuleHarness.REDIRECT_URL,
+                ModuleHarness.CLIENT_ID,
+                ModuleHarness.CLIENT_SECRET,
+                "refresh-token",
+                ModuleHarness.createScopes(),
+                null,
+                null,
+                "basic",
+                true,
+                null,
+                false,
+                promise
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package com.rnappauth;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Looper;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.rnappauth.loadtest.MockIdentityProvider;
+import com.rnappauth.loadtest.ModuleHarness;
+import com.rnappauth.loadtest.RecordingPromise;
+import com.rnappauth.loadtest.ShadowArguments;
+import com.rnappauth.loadtest.ShadowAuthorizationService;
+
+import net.openid.appauth.AuthorizationRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The redirect can reach the module through onActivityResult, onNewIntent or both, in either
+ * order, and every authorize call has to settle exactly once.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(
+        sdk = 28,
+        shadows = { ShadowArguments.class, ShadowAuthorizationService.class },
+        instrumentedPackages = { "com.facebook.react.bridge", "net.openid.appauth" }
+)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class RNAppAuthModuleRedirectTest {
+
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private MockIdentityProvider identityProvider;
+    private ModuleHarness harness;
+
+    @Before
+    public void setUp() throws Exception {
+        ShadowAuthorizationService.reset();
+        identityProvider = new MockIdentityProvider(0, 0);
+        identityProvider.start();
+        harness = new ModuleHarness();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        identityProvider.stop();
+    }
+
+    @Test
+    public void cancelFromClearedActivityThenNewIntentCompletesFromRedirect() throws Exception {
+        Settlement settlement = new Settlement();
+        AuthorizationRequest request = authorize(settlement.promise);
+
+        // singleTask clears AppAuth's activity before the redirect is delivered
+        harness.module.onActivityResult(harness.activity, 0, Activity.RESULT_CANCELED, null);
+        harness.module.onNewIntent(createRedirect("?code=code-1&state=" + request.state));
+        settlement.await();
+
+        assertTrue(settlement.error, settlement.resolved);
+        ReadableMap timing = ((ReadableMap) settlement.value).getMap("authorizationTiming");
+        assertEquals(PendingAuthorization.REDIRECT_NEW_INTENT, timing.getString("redirectPath"));
+        assertEquals(1, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+        assertEquals(0, settlement.settledAgain);
+    }
+
+    @Test
+    public void newIntentThenActivityResultExchangesCodeOnce() throws Exception {
+        Settlement settlement = new Settlement();
+        AuthorizationRequest request = authorize(settlement.promise);
+
+        harness.module.onNewIntent(createRedirect("?code=code-1&state=" + request.state));
+        harness.module.onActivityResult(harness.activity, 0, Activity.RESULT_OK, ModuleHarness.createActivityResult(request, "code-1"));
+        settlement.await();
+
+        assertTrue(settlement.error, settlement.resolved);
+        assertEquals(1, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+        assertEquals(0, settlement.settledAgain);
+    }
+
+    @Test
+    public void cancelWithoutRedirectRejects() throws Exception {
+        Settlement settlement = new Settlement();
+        authorize(settlement.promise);
+
+        harness.module.onActivityResult(harness.activity, 0, Activity.RESULT_CANCELED, null);
+        settlement.await();
+
+        assertFalse(settlement.resolved);
+        assertEquals(0, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+    }
+
+    @Test
+    public void opaqueAndUnrelatedIntentsAreIgnored() throws Exception {
+        Settlement settlement = new Settlement();
+        AuthorizationRequest request = authorize(settlement.promise);
+
+        harness.module.onNewIntent(new Intent(Intent.ACTION_VIEW, Uri.parse("mailto:someone@example.com")));
+        harness.module.onNewIntent(new Intent(Intent.ACTION_VIEW, Uri.parse("https://example.com/other?state=" + request.state)));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(settlement.settled);
+
+        harness.module.onNewIntent(createRedirect("?code=code-1&state=" + request.state));
+        settlement.await();
+        assertTrue(settlement.error, settlement.resolved);
+    }
+
+    private AuthorizationRequest authorize(Promise promise) throws Exception {
+        harness.module.authorize(
+                identityProvider.getIssuer(),
+                ModuleHarness.REDIRECT_URL,
+                ModuleHarness.CLIENT_ID,
+                null,
+                ModuleHarness.createScopes(),
+                null,
+                ModuleHarness.createServiceConfiguration(identityProvider),
+                true,
+                "basic",
+                true,
+                null,
+                false,
+                false,
+                false,
+                promise
+        );
+        return harness.takeLaunchedRequest();
+    }
+
+    private static Intent createRedirect(String query) {
+        return new Intent(Intent.ACTION_VIEW, Uri.parse(ModuleHarness.REDIRECT_URL + query));
+    }
+
+    private static final class Settlement implements RecordingPromise.Listener {
+        final Promise promise = RecordingPromise.create(this);
+        volatile boolean settled;
+        volatile boolean resolved;
+        @Nullable volatile Object value;
+        @Nullable volatile String error;
+        volatile int settledAgain;
+
+        @Override
+        public void onSettled(boolean resolved, @Nullable Object value, @Nullable String error) {
+            this.resolved = resolved;
+            this.value = value;
+            this.error = error;
+            this.settled = true;
+        }
+
+        @Override
+        public void onSettledAgain() {
+            settledAgain++;
+        }
+
+        /*
+         * Run the main looper, where AppAuth delivers its callbacks, until the promise settles,
+         * then once more so a late second settlement would be seen
+         */
+        void await() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (!settled) {
+                shadowOf(Looper.getMainLooper()).idle();
+                if (System.currentTimeMillis() > deadline) {
+                    fail("The authorize promise never settled");
+                }
+                Thread.sleep(1);
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+}
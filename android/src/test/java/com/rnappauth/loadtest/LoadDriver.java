@@ -0,0 +1,143 @@
+package com.rnappauth.loadtest;
+
+import android.os.Looper;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Calls a module method at a fixed concurrency and records how long each call takes to settle its
+ * promise. AppAuth delivers its callbacks on the main looper, which the calling test thread keeps
+ * running while calls are in flight. Runs are sized with system properties, see build.gradle.
+ */
+public final class LoadDriver {
+
+    public static final int REQUESTS = Integer.getInteger("rnappauth.loadtest.requests", 200);
+    public static final int CONCURRENCY = Integer.getInteger("rnappauth.loadtest.concurrency", 8);
+    public static final long LATENCY_MS = Long.getLong("rnappauth.loadtest.latencyMs", 20L);
+    public static final double ERROR_RATE = Double.parseDouble(System.getProperty("rnappauth.loadtest.errorRate", "0"));
+
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    public interface Operation {
+        void start(int index, Promise promise) throws Exception;
+    }
+
+    private final int concurrency;
+
+    public LoadDriver(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /*
+     * Start calls from worker threads, like the bridge does, or on the main thread for callbacks
+     * Android makes there, such as onActivityResult
+     */
+    public LoadTestReport run(
+            String name,
+            MockIdentityProvider identityProvider,
+            int requests,
+            boolean onMainThread,
+            Operation operation
+    ) throws InterruptedException {
+        Run run = new Run(requests);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        int started = 0;
+        try {
+            while (run.settled.get() < requests) {
+                while (started < requests && started - run.settled.get() < concurrency) {
+                    Runnable call = run.createCall(started++, operation);
+                    if (onMainThread) {
+                        call.run();
+                    } else {
+                        workers.execute(call);
+                    }
+                }
+
+                shadowOf(Looper.getMainLooper()).idle();
+                if (System.nanoTime() > deadline) {
+                    fail(name + ": " + (requests - run.settled.get()) + " calls never settled");
+                }
+                Thread.sleep(1);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        return new LoadTestReport(
+                name,
+                requests,
+                concurrency,
+                System.nanoTime() - startedAt,
+                run.latenciesNanos,
+                run.successes.get(),
+                new ArrayList<>(run.errors),
+                run.duplicateSettlements.get(),
+                identityProvider.getRequestCounts(),
+                ShadowAuthorizationService.getLiveInstanceCount()
+        );
+    }
+
+    private static final class Run {
+        final long[] latenciesNanos;
+        final AtomicInteger settled = new AtomicInteger();
+        final AtomicInteger successes = new AtomicInteger();
+        final AtomicInteger duplicateSettlements = new AtomicInteger();
+        final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+        Run(int requests) {
+            this.latenciesNanos = new long[requests];
+        }
+
+        Runnable createCall(final int index, final Operation operation) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    final long startedAt = System.nanoTime();
+                    Promise promise = RecordingPromise.create(new RecordingPromise.Listener() {
+                        @Override
+                        public void onSettled(boolean resolved, @Nullable Object value, @Nullable String error) {
+                            complete(index, startedAt, resolved, error);
+                        }
+
+                        @Override
+                        public void onSettledAgain() {
+                            duplicateSettlements.incrementAndGet();
+                        }
+                    });
+
+                    try {
+                        operation.start(index, promise);
+                    } catch (Exception e) {
+                        promise.reject("Load test operation threw", e);
+                    }
+                }
+            };
+        }
+
+        private void complete(int index, long startedAt, boolean resolved, @Nullable String error) {
+            latenciesNanos[index] = System.nanoTime() - startedAt;
+            if (resolved) {
+                successes.incrementAndGet();
+            } else {
+                errors.add(error);
+            }
+            // published last, so the run only reads latencies that have been written
+            settled.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.rnappauth.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of one {@link LoadDriver} run: throughput, latency percentiles, how many requests
+ * each endpoint of the {@link MockIdentityProvider} received, and how many AuthorizationService
+ * instances were left undisposed.
+ */
+public final class LoadTestReport {
+
+    private static final int MAX_REPORTED_ERRORS = 3;
+
+    public final String name;
+    public final int requests;
+    public final int concurrency;
+    public final long elapsedNanos;
+    public final int successes;
+    public final int failures;
+    public final int duplicateSettlements;
+    public final Map<String, Integer> requestCounts;
+    public final int leakedAuthorizationServices;
+
+    private final long[] sortedLatenciesNanos;
+    private final List<String> errors;
+
+    LoadTestReport(
+            String name,
+            int requests,
+            int concurrency,
+            long elapsedNanos,
+            long[] latenciesNanos,
+            int successes,
+            List<String> errors,
+            int duplicateSettlements,
+            Map<String, Integer> requestCounts,
+            int leakedAuthorizationServices
+    ) {
+        this.name = name;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedLatenciesNanos = latenciesNanos.clone();
+        Arrays.sort(this.sortedLatenciesNanos);
+        this.successes = successes;
+        this.failures = errors.size();
+        this.errors = errors;
+        this.duplicateSettlements = duplicateSettlements;
+        this.requestCounts = requestCounts;
+        this.leakedAuthorizationServices = leakedAuthorizationServices;
+    }
+
+    public double getThroughput() {
+        return requests / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /*
+     * Nearest-rank percentile, in milliseconds
+     */
+    public double getLatencyPercentileMs(double percentile) {
+        if (sortedLatenciesNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatenciesNanos.length);
+        int index = Math.min(Math.max(rank - 1, 0), sortedLatenciesNanos.length - 1);
+        return sortedLatenciesNanos[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                Locale.US,
+                "%s: %d requests at concurrency %d in %.2f s, %.1f requests/s%n"
+                        + "  latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n"
+                        + "  %d succeeded, %d failed, %d settled more than once%n"
+                        + "  requests per endpoint: %s%n"
+                        + "  leaked AuthorizationService instances: %d",
+                name,
+                requests,
+                concurrency,
+                elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1),
+                getThroughput(),
+                getLatencyPercentileMs(50),
+                getLatencyPercentileMs(90),
+                getLatencyPercentileMs(99),
+                getLatencyPercentileMs(100),
+                successes,
+                failures,
+                duplicateSettlements,
+                requestCounts,
+                leakedAuthorizationServices
+        ));
+
+        List<String> distinctErrors = new ArrayList<>(new LinkedHashSet<>(errors));
+        for (String error : distinctErrors.subList(0, Math.min(MAX_REPORTED_ERRORS, distinctErrors.size()))) {
+            report.append(String.format(Locale.US, "%n  error: %s", error));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,172 @@
+package com.rnappauth.loadtest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * An identity provider on a local {@link MockWebServer}, serving discovery, token, revocation,
+ * JWKS, userinfo and introspection endpoints. Every response is delayed by the configured latency, and the token endpoint
+ * fails with a 503 at the configured rate. Requests are counted per endpoint.
+ */
+public final class MockIdentityProvider extends Dispatcher {
+
+    public static final String DISCOVERY = "discovery";
+    public static final String TOKEN = "token";
+    public static final String REVOCATION = "revocation";
+    public static final String JWKS = "jwks";
+    public static final String USERINFO = "userinfo";
+    public static final String INTROSPECTION = "introspection";
+
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+    private static final String TOKEN_PATH = "/token";
+    private static final String REVOCATION_PATH = "/revoke";
+    private static final String JWKS_PATH = "/jwks";
+    private static final String USERINFO_PATH = "/userinfo";
+    private static final String INTROSPECTION_PATH = "/introspect";
+
+    private final MockWebServer server = new MockWebServer();
+    private final long latencyMs;
+    private final double errorRate;
+    // seeded, so a run with errors fails the same requests every time
+    private final Random random = new Random(0);
+    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger issuedTokens = new AtomicInteger();
+
+    public MockIdentityProvider(long latencyMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+    }
+
+    public void start() throws IOException {
+        server.setDispatcher(this);
+        server.start();
+    }
+
+    public void stop() throws IOException {
+        server.shutdown();
+    }
+
+    public String getIssuer() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    public String getAuthorizationEndpoint() {
+        return getIssuer() + "/authorize";
+    }
+
+    public String getTokenEndpoint() {
+        return getIssuer() + TOKEN_PATH;
+    }
+
+    public String getUserInfoEndpoint() {
+        return getIssuer() + USERINFO_PATH;
+    }
+
+    public String getIntrospectionEndpoint() {
+        return getIssuer() + INTROSPECTION_PATH;
+    }
+
+    public int getRequestCount(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    public Map<String, Integer> getRequestCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, AtomicInteger> count : requestCounts.entrySet()) {
+            counts.put(count.getKey(), count.getValue().get());
+        }
+        return counts;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath();
+        int query = path.indexOf('?');
+        if (query != -1) {
+            path = path.substring(0, query);
+        }
+
+        MockResponse response;
+        if (DISCOVERY_PATH.equals(path)) {
+            count(DISCOVERY);
+            response = json(200, createDiscoveryDocument());
+        } else if (TOKEN_PATH.equals(path) && "POST".equals(request.getMethod())) {
+            count(TOKEN);
+            response = random.nextDouble() < errorRate
+                    ? json(503, "{\"error\":\"temporarily_unavailable\"}")
+                    : json(200, createTokenResponse(issuedTokens.incrementAndGet()));
+        } else if (REVOCATION_PATH.equals(path) && "POST".equals(request.getMethod())) {
+            count(REVOCATION);
+            response = new MockResponse().setResponseCode(200);
+        } else if (JWKS_PATH.equals(path)) {
+            count(JWKS);
+            response = json(200, "{\"keys\":[]}");
+        } else if (USERINFO_PATH.equals(path)) {
+            count(USERINFO);
+            response = json(200, "{\"sub\":\"subject\"}");
+        } else if (INTROSPECTION_PATH.equals(path) && "POST".equals(request.getMethod())) {
+            count(INTROSPECTION);
+            response = json(200, "{\"active\":true}");
+        } else {
+            response = new MockResponse().setResponseCode(404);
+        }
+
+        return response.setHeadersDelay(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void count(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        if (count == null) {
+            AtomicInteger created = new AtomicInteger();
+            count = requestCounts.putIfAbsent(endpoint, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private String createDiscoveryDocument() {
+        String issuer = getIssuer();
+        return "{"
+                + "\"issuer\":\"" + issuer + "\","
+                + "\"authorization_endpoint\":\"" + getAuthorizationEndpoint() + "\","
+                + "\"token_endpoint\":\"" + getTokenEndpoint() + "\","
+                + "\"revocation_endpoint\":\"" + issuer + REVOCATION_PATH + "\","
+                + "\"jwks_uri\":\"" + issuer + JWKS_PATH + "\","
+                + "\"userinfo_endpoint\":\"" + getUserInfoEndpoint() + "\","
+                + "\"introspection_endpoint\":\"" + getIntrospectionEndpoint() + "\","
+                + "\"response_types_supported\":[\"code\"],"
+                + "\"subject_types_supported\":[\"public\"],"
+                + "\"id_token_signing_alg_values_supported\":[\"RS256\"]"
+                + "}";
+    }
+
+    private static String createTokenResponse(int sequence) {
+        return "{"
+                + "\"access_token\":\"access-" + sequence + "\","
+                + "\"token_type\":\"Bearer\","
+                + "\"expires_in\":3600,"
+                + "\"refresh_token\":\"refresh-" + sequence + "\""
+                + "}";
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}
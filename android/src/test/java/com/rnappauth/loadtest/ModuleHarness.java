@@ -0,0 +1,107 @@
+package com.rnappauth.loadtest;
+
+import android.app.Activity;
+import android.content.ComponentName;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.Signature;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.rnappauth.RNAppAuthModule;
+
+import net.openid.appauth.AuthorizationRequest;
+import net.openid.appauth.AuthorizationResponse;
+
+import org.json.JSONException;
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowPackageManager;
+
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * An {@link RNAppAuthModule} attached to a resumed Robolectric activity, with a browser installed
+ * so AppAuth can build authorization intents, and helpers to play the browser's part.
+ */
+public final class ModuleHarness {
+
+    public static final String CLIENT_ID = "rnappauth-test";
+    public static final String CLIENT_SECRET = "rnappauth-secret";
+    public static final String REDIRECT_URL = "com.rnappauth.test:/oauth2redirect";
+
+    private static final String BROWSER_PACKAGE = "com.rnappauth.test.browser";
+    // AuthorizationManagementActivity.KEY_AUTH_REQUEST, which is package-private
+    private static final String AUTH_REQUEST_EXTRA = "authRequest";
+
+    public final ReactApplicationContext reactContext;
+    public final Activity activity;
+    public final RNAppAuthModule module;
+
+    public ModuleHarness() throws PackageManager.NameNotFoundException {
+        installBrowser();
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        reactContext = new ReactApplicationContext(RuntimeEnvironment.application);
+        reactContext.onHostResume(activity);
+        module = new RNAppAuthModule(reactContext);
+    }
+
+    public static ReadableArray createScopes() {
+        return JavaOnlyArray.of("openid", "offline_access");
+    }
+
+    public static ReadableMap createServiceConfiguration(MockIdentityProvider identityProvider) {
+        return JavaOnlyMap.of(
+                "authorizationEndpoint", identityProvider.getAuthorizationEndpoint(),
+                "tokenEndpoint", identityProvider.getTokenEndpoint()
+        );
+    }
+
+    /*
+     * The request AppAuth was asked to open in the browser by the last authorize call
+     */
+    public AuthorizationRequest takeLaunchedRequest() throws JSONException {
+        Intent launched = shadowOf(activity).getNextStartedActivityForResult().intent;
+        return AuthorizationRequest.jsonDeserialize(launched.getStringExtra(AUTH_REQUEST_EXTRA));
+    }
+
+    /*
+     * The result AppAuth's management activity hands back after a successful redirect
+     */
+    public static Intent createActivityResult(AuthorizationRequest request, String code) {
+        return new AuthorizationResponse.Builder(request)
+                .setState(request.state)
+                .setAuthorizationCode(code)
+                .build()
+                .toIntent();
+    }
+
+    /*
+     * AppAuth refuses to build an authorization intent without a browser that handles http and
+     * https links
+     */
+    private static void installBrowser() throws PackageManager.NameNotFoundException {
+        ShadowPackageManager packageManager = shadowOf(RuntimeEnvironment.application.getPackageManager());
+
+        PackageInfo browser = new PackageInfo();
+        browser.packageName = BROWSER_PACKAGE;
+        browser.applicationInfo = new ApplicationInfo();
+        browser.applicationInfo.packageName = BROWSER_PACKAGE;
+        browser.signatures = new Signature[] { new Signature(new byte[] { 1 }) };
+        packageManager.installPackage(browser);
+
+        ComponentName browserActivity = new ComponentName(BROWSER_PACKAGE, BROWSER_PACKAGE + ".BrowserActivity");
+        IntentFilter filter = new IntentFilter(Intent.ACTION_VIEW);
+        filter.addCategory(Intent.CATEGORY_BROWSABLE);
+        filter.addDataScheme("http");
+        filter.addDataScheme("https");
+        packageManager.addActivityIfNotPresent(browserActivity);
+        packageManager.addIntentFilterForActivity(browserActivity, filter);
+    }
+}
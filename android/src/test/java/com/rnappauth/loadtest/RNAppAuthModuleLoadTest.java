@@ -0,0 +1,159 @@
+package com.rnappauth.loadtest;
+
+import android.app.Activity;
+
+import com.facebook.react.bridge.Promise;
+
+import net.openid.appauth.AuthorizationRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Drives refresh, prefetchConfiguration and the onActivityResult code exchange against a
+ * {@link MockIdentityProvider} and prints a {@link LoadTestReport} for each. The defaults run in
+ * seconds; scale them up with the rnappauth.loadtest.* properties, e.g.
+ * ./gradlew test --tests '*LoadTest' -Prnappauth.loadtest.requests=5000 -Prnappauth.loadtest.concurrency=32
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(
+        sdk = 28,
+        shadows = { ShadowArguments.class, ShadowAuthorizationService.class },
+        instrumentedPackages = { "com.facebook.react.bridge", "net.openid.appauth" }
+)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class RNAppAuthModuleLoadTest {
+
+    private MockIdentityProvider identityProvider;
+    private ModuleHarness harness;
+    private LoadDriver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        ShadowAuthorizationService.reset();
+        identityProvider = new MockIdentityProvider(LoadDriver.LATENCY_MS, LoadDriver.ERROR_RATE);
+        identityProvider.start();
+        harness = new ModuleHarness();
+        driver = new LoadDriver(LoadDriver.CONCURRENCY);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        identityProvider.stop();
+    }
+
+    @Test
+    public void prefetchConfiguration() throws Exception {
+        LoadTestReport report = driver.run("prefetchConfiguration", identityProvider, LoadDriver.REQUESTS, false, new LoadDriver.Operation() {
+            @Override
+            public void start(int index, Promise promise) {
+                harness.module.prefetchConfiguration(
+                        false,
+                        identityProvider.getIssuer(),
+                        ModuleHarness.REDIRECT_URL,
+                        ModuleHarness.CLIENT_ID,
+                        ModuleHarness.createScopes(),
+                        null,
+                        true,
+                        null,
+                        null,
+                        null,
+                        true,
+                        "basic",
+                        false,
+                        promise
+                );
+            }
+        });
+        System.out.println(report);
+
+        assertEquals(report.requests, report.successes);
+        assertEquals(0, report.duplicateSettlements);
+        // concurrent callers join the one in-flight fetch, later ones reuse its result
+        assertEquals(1, identityProvider.getRequestCount(MockIdentityProvider.DISCOVERY));
+    }
+
+    @Test
+    public void refresh() throws Exception {
+        LoadTestReport report = driver.run("refresh", identityProvider, LoadDriver.REQUESTS, false, new LoadDriver.Operation() {
+            @Override
+            public void start(int index, Promise promise) {
+                harness.module.refresh(
+                        identityProvider.getIssuer(),
+                        ModuleHarness.REDIRECT_URL,
+                        ModuleHarness.CLIENT_ID,
+                        ModuleHarness.CLIENT_SECRET,
+                        "refresh-token-" + index,
+                        ModuleHarness.createScopes(),
+                        null,
+                        null,
+                        "basic",
+                        true,
+                        null,
+                        false,
+                        promise
+                );
+            }
+        });
+        System.out.println(report);
+
+        assertEquals(report.requests, report.successes + report.failures);
+        assertEquals(0, report.duplicateSettlements);
+        assertEquals(1, identityProvider.getRequestCount(MockIdentityProvider.DISCOVERY));
+        assertEquals(report.requests, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+        assertEquals(0, report.leakedAuthorizationServices);
+        if (LoadDriver.ERROR_RATE == 0) {
+            assertEquals(report.requests, report.successes);
+        }
+    }
+
+    @Test
+    public void codeExchangeFromActivityResult() throws Exception {
+        LoadTestReport report = driver.run("onActivityResult code exchange", identityProvider, LoadDriver.REQUESTS, true, new LoadDriver.Operation() {
+            @Override
+            public void start(int index, Promise promise) throws Exception {
+                harness.module.authorize(
+                        identityProvider.getIssuer(),
+                        ModuleHarness.REDIRECT_URL,
+                        ModuleHarness.CLIENT_ID,
+                        ModuleHarness.CLIENT_SECRET,
+                        ModuleHarness.createScopes(),
+                        null,
+                        ModuleHarness.createServiceConfiguration(identityProvider),
+                        true,
+                        "basic",
+                        true,
+                        null,
+                        false,
+                        false,
+                        false,
+                        promise
+                );
+                AuthorizationRequest request = harness.takeLaunchedRequest();
+                harness.module.onActivityResult(
+                        harness.activity,
+                        0,
+                        Activity.RESULT_OK,
+                        ModuleHarness.createActivityResult(request, "code-" + index)
+                );
+            }
+        });
+        System.out.println(report);
+
+        assertEquals(report.requests, report.successes + report.failures);
+        assertEquals(0, report.duplicateSettlements);
+        assertEquals(0, identityProvider.getRequestCount(MockIdentityProvider.DISCOVERY));
+        assertEquals(report.requests, identityProvider.getRequestCount(MockIdentityProvider.TOKEN));
+        assertEquals(0, report.leakedAuthorizationServices);
+        if (LoadDriver.ERROR_RATE == 0) {
+            assertEquals(report.requests, report.successes);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.rnappauth.loadtest;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Promise} that reports how it was settled. It is a proxy rather than an implementation,
+ * so it keeps working as React Native adds overloads to the interface.
+ */
+public final class RecordingPromise implements InvocationHandler {
+
+    public interface Listener {
+        void onSettled(boolean resolved, @Nullable Object value, @Nullable String error);
+
+        /*
+         * A promise settled more than once, which React Native reports as an error in the app
+         */
+        void onSettledAgain();
+    }
+
+    private final Listener listener;
+    private final AtomicBoolean settled = new AtomicBoolean(false);
+
+    private RecordingPromise(Listener listener) {
+        this.listener = listener;
+    }
+
+    public static Promise create(Listener listener) {
+        return (Promise) Proxy.newProxyInstance(
+                Promise.class.getClassLoader(),
+                new Class<?>[] { Promise.class },
+                new RecordingPromise(listener)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (name.equals("equals")) {
+            return proxy == args[0];
+        }
+        if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        if (name.equals("toString")) {
+            return "RecordingPromise";
+        }
+
+        boolean resolved = name.equals("resolve");
+        if (!resolved && !name.startsWith("reject")) {
+            return null;
+        }
+
+        if (!settled.compareAndSet(false, true)) {
+            listener.onSettledAgain();
+        } else if (resolved) {
+            listener.onSettled(true, args != null && args.length > 0 ? args[0] : null, null);
+        } else {
+            listener.onSettled(false, null, describeRejection(args));
+        }
+        return null;
+    }
+
+    /*
+     * Join the code, message and throwable of whichever reject overload was called
+     */
+    private static String describeRejection(@Nullable Object[] args) {
+        StringBuilder error = new StringBuilder();
+        if (args != null) {
+            for (Object arg : args) {
+                String part = arg instanceof Throwable ? String.valueOf(((Throwable) arg).getMessage())
+                        : arg instanceof String ? (String) arg
+                        : null;
+                if (part != null) {
+                    error.append(error.length() > 0 ? ": " : "").append(part);
+                }
+            }
+        }
+        return error.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.rnappauth.loadtest;
+
+import android.os.Looper;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * How a single module call settled its promise, for tests that make one call at a time.
+ */
+public final class Settlement implements RecordingPromise.Listener {
+
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    public final Promise promise = RecordingPromise.create(this);
+    public volatile boolean settled;
+    public volatile boolean resolved;
+    @Nullable public volatile Object value;
+    @Nullable public volatile String error;
+    public volatile int settledAgain;
+
+    @Override
+    public void onSettled(boolean resolved, @Nullable Object value, @Nullable String error) {
+        this.resolved = resolved;
+        this.value = value;
+        this.error = error;
+        this.settled = true;
+    }
+
+    @Override
+    public void onSettledAgain() {
+        settledAgain++;
+    }
+
+    /*
+     * Run the main looper, where AppAuth delivers its callbacks, until the promise settles, then
+     * once more so a late second settlement would be seen
+     */
+    public void await() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!settled) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (System.currentTimeMillis() > deadline) {
+                fail("The promise never settled");
+            }
+            Thread.sleep(1);
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,55 @@
+package com.rnappauth.loadtest;
+
+import android.content.Context;
+
+import net.openid.appauth.AppAuthConfiguration;
+import net.openid.appauth.AuthorizationService;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadow.api.Shadow;
+import org.robolectric.util.ReflectionHelpers.ClassParameter;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Tracks every {@link AuthorizationService} that is created and not yet disposed. Each one holds
+ * a custom tabs service connection, so any left over at the end of a run are leaks.
+ */
+@Implements(AuthorizationService.class)
+public class ShadowAuthorizationService {
+
+    private static final Set<AuthorizationService> liveInstances =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<AuthorizationService, Boolean>()));
+
+    @RealObject
+    private AuthorizationService realObject;
+
+    @Implementation
+    protected void __constructor__(Context context, AppAuthConfiguration configuration) {
+        liveInstances.add(realObject);
+        Shadow.invokeConstructor(
+                AuthorizationService.class,
+                realObject,
+                ClassParameter.from(Context.class, context),
+                ClassParameter.from(AppAuthConfiguration.class, configuration)
+        );
+    }
+
+    @Implementation
+    protected void dispose() {
+        liveInstances.remove(realObject);
+        Shadow.directlyOn(realObject, AuthorizationService.class).dispose();
+    }
+
+    public static int getLiveInstanceCount() {
+        return liveInstances.size();
+    }
+
+    public static void reset() {
+        liveInstances.clear();
+    }
+}
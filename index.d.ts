@@ -3,6 +3,8 @@ export interface ServiceConfiguration {
   tokenEndpoint: string;
   revocationEndpoint?: string;
   registrationEndpoint?: string;
+  userInfoEndpoint?: string;
+  introspectionEndpoint?: string;
 }
 
 export type BaseAuthConfiguration =
@@ -38,11 +40,14 @@ export type AuthConfiguration = BaseAuthConfiguration & {
   customHeaders?: CustomHeaders;
   useNonce?: boolean;
   usePKCE?: boolean;
+  skipAccessTokenExpirationDate?: boolean;
+  preconnectTokenEndpoint?: boolean;
+  usePAR?: boolean;
 };
 
-export interface AuthorizeResult {
+export interface AuthorizeResultWithoutExpirationDate {
   accessToken: string;
-  accessTokenExpirationDate: string;
+  accessTokenExpirationTime?: number;
   authorizeAdditionalParameters?: { [name: string]: string };
   tokenAdditionalParameters?: { [name: string]: string };
   additionalParameters?: { [name: string]: string };
@@ -50,17 +55,101 @@ export interface AuthorizeResult {
   refreshToken: string;
   tokenType: string;
   scopes: [string];
+  tokenEndpointPreconnect?: 'ready' | 'pending' | 'expired' | 'failed';
+  authorizationTiming?: {
+    redirectPath: 'onNewIntent' | 'onActivityResult';
+    browserMs: number;
+    tokenExchangeMs: number;
+  };
 }
 
-export interface RefreshResult {
-  accessToken: string;
+export interface AuthorizeResult extends AuthorizeResultWithoutExpirationDate {
   accessTokenExpirationDate: string;
+}
+
+export interface RefreshResultWithoutExpirationDate {
+  accessToken: string;
+  accessTokenExpirationTime?: number;
   additionalParameters?: { [name: string]: string };
   idToken: string;
   refreshToken: string;
   tokenType: string;
 }
 
+export interface RefreshResult extends RefreshResultWithoutExpirationDate {
+  accessTokenExpirationDate: string;
+}
+
+type SkipAccessTokenExpirationDate = { skipAccessTokenExpirationDate: true };
+
+export interface RefreshManyRequest {
+  config: AuthConfiguration;
+  refreshToken: string;
+}
+
+export interface RefreshManyError {
+  error: string;
+  message?: string;
+}
+
+export interface AccountTokens {
+  accountId: string;
+  accessToken: string;
+  accessTokenExpirationDate?: string;
+  accessTokenExpirationTime?: number;
+  idToken?: string;
+  refreshToken: string;
+  tokenType?: string;
+}
+
+export interface AccountResult extends RefreshResult {
+  accountId: string;
+}
+
+export interface AuthenticatedFetchOptions {
+  method?: string;
+  headers?: { [name: string]: string };
+  body?: string;
+  onChunk?: (chunk: string) => void;
+}
+
+export interface AuthenticatedFetchResponse {
+  status: number;
+  headers: { [name: string]: string };
+  body: string | null;
+}
+
+export interface UserInfoConfiguration {
+  accessToken: string;
+  idToken?: string;
+}
+
+export interface UserInfo {
+  sub: string;
+  [claim: string]: any;
+}
+
+export interface IntrospectConfiguration {
+  token: string;
+  tokenTypeHint?: 'access_token' | 'refresh_token';
+}
+
+export interface IntrospectResult {
+  active: boolean;
+  scope?: string;
+  client_id?: string;
+  username?: string;
+  token_type?: string;
+  exp?: number;
+  iat?: number;
+  nbf?: number;
+  sub?: string;
+  aud?: string | string[];
+  iss?: string;
+  jti?: string;
+  [claim: string]: any;
+}
+
 export interface RevokeConfiguration {
   tokenToRevoke: string;
   sendClientId?: boolean;
@@ -72,8 +161,15 @@ export interface RefreshConfiguration {
 
 export function prefetchConfiguration(config: AuthConfiguration): Promise<void>;
 
+export function authorize(
+  config: AuthConfiguration & SkipAccessTokenExpirationDate
+): Promise<AuthorizeResultWithoutExpirationDate>;
 export function authorize(config: AuthConfiguration): Promise<AuthorizeResult>;
 
+export function refresh(
+  config: AuthConfiguration & SkipAccessTokenExpirationDate,
+  refreshConfig: RefreshConfiguration
+): Promise<RefreshResultWithoutExpirationDate>;
 export function refresh(
   config: AuthConfiguration,
   refreshConfig: RefreshConfiguration
@@ -83,3 +179,43 @@ export function revoke(
   config: BaseAuthConfiguration,
   revokeConfig: RevokeConfiguration
 ): Promise<void>;
+
+export function refreshMany(
+  requests: Array<
+    RefreshManyRequest & { config: SkipAccessTokenExpirationDate }
+  >
+): Promise<Array<RefreshResultWithoutExpirationDate | RefreshManyError>>;
+export function refreshMany(
+  requests: RefreshManyRequest[]
+): Promise<Array<RefreshResult | RefreshManyError>>;
+
+export function addAccount(
+  config: AuthConfiguration,
+  tokens: AccountTokens
+): Promise<AccountResult>;
+
+export function switchAccount(accountId: string): Promise<AccountResult>;
+
+export function onAccountTokensRefreshed(
+  listener: (result: AccountResult) => void
+): { remove(): void };
+
+export function removeAccount(accountId: string): Promise<void>;
+
+export function enableSharedAuthState(): Promise<void>;
+
+export function getUserInfo(
+  config: BaseAuthConfiguration,
+  userInfoConfig: UserInfoConfiguration
+): Promise<UserInfo>;
+
+export function introspect(
+  config: BaseAuthConfiguration,
+  introspectConfig: IntrospectConfiguration
+): Promise<IntrospectResult>;
+
+export function authenticatedFetch(
+  accountId: string,
+  url: string,
+  options?: AuthenticatedFetchOptions
+): Promise<AuthenticatedFetchResponse>;
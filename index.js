@@ -1,5 +1,5 @@
 import invariant from 'invariant';
-import { NativeModules, Platform } from 'react-native';
+import { DeviceEventEmitter, NativeModules, Platform } from 'react-native';
 
 const { RNAppAuth } = NativeModules;
 
@@ -22,6 +22,9 @@ const validateClientId = clientId =>
 const validateRedirectUrl = redirectUrl =>
   invariant(typeof redirectUrl === 'string', 'Config error: redirectUrl must be a string');
 
+const validateAndroid = methodName =>
+  invariant(Platform.OS === 'android', `${methodName} is only supported on Android`);
+
 const validateHeaders = headers => {
   if (!headers) {
     return;
@@ -57,6 +60,11 @@ export const prefetchConfiguration = async ({
   serviceConfiguration,
   dangerouslyAllowInsecureHttpRequests = false,
   customHeaders,
+  clientSecret,
+  additionalParameters,
+  usePKCE = true,
+  clientAuthMethod = 'basic',
+  usePAR = false,
 }) => {
   if (Platform.OS === 'android') {
     validateIssuerOrServiceConfigurationEndpoints(issuer, serviceConfiguration);
@@ -73,6 +81,11 @@ export const prefetchConfiguration = async ({
       serviceConfiguration,
       dangerouslyAllowInsecureHttpRequests,
       customHeaders,
+      clientSecret,
+      additionalParameters,
+      usePKCE,
+      clientAuthMethod,
+      usePAR,
     ];
 
     RNAppAuth.prefetchConfiguration(...nativeMethodArguments);
@@ -92,6 +105,9 @@ export const authorize = ({
   clientAuthMethod = 'basic',
   dangerouslyAllowInsecureHttpRequests = false,
   customHeaders,
+  skipAccessTokenExpirationDate = false,
+  preconnectTokenEndpoint = false,
+  usePAR = false,
 }) => {
   validateIssuerOrServiceConfigurationEndpoints(issuer, serviceConfiguration);
   validateClientId(clientId);
@@ -114,6 +130,9 @@ export const authorize = ({
     nativeMethodArguments.push(clientAuthMethod);
     nativeMethodArguments.push(dangerouslyAllowInsecureHttpRequests);
     nativeMethodArguments.push(customHeaders);
+    nativeMethodArguments.push(skipAccessTokenExpirationDate);
+    nativeMethodArguments.push(preconnectTokenEndpoint);
+    nativeMethodArguments.push(usePAR);
   }
 
   if (Platform.OS === 'ios') {
@@ -136,6 +155,7 @@ export const refresh = (
     clientAuthMethod = 'basic',
     dangerouslyAllowInsecureHttpRequests = false,
     customHeaders,
+    skipAccessTokenExpirationDate = false,
   },
   { refreshToken }
 ) => {
@@ -161,11 +181,234 @@ export const refresh = (
     nativeMethodArguments.push(clientAuthMethod);
     nativeMethodArguments.push(dangerouslyAllowInsecureHttpRequests);
     nativeMethodArguments.push(customHeaders);
+    nativeMethodArguments.push(skipAccessTokenExpirationDate);
   }
 
   return RNAppAuth.refresh(...nativeMethodArguments);
 };
 
+export const refreshMany = requests => {
+  validateAndroid('refreshMany');
+  invariant(Array.isArray(requests), 'Please pass in an array of refresh requests');
+
+  const refreshSpecs = requests.map(
+    ({
+      config: {
+        issuer,
+        redirectUrl,
+        clientId,
+        clientSecret,
+        scopes,
+        additionalParameters,
+        serviceConfiguration,
+        clientAuthMethod = 'basic',
+        dangerouslyAllowInsecureHttpRequests = false,
+        customHeaders,
+        skipAccessTokenExpirationDate = false,
+      },
+      refreshToken,
+    }) => {
+      validateIssuerOrServiceConfigurationEndpoints(issuer, serviceConfiguration);
+      validateClientId(clientId);
+      validateRedirectUrl(redirectUrl);
+      validateHeaders(customHeaders);
+      invariant(refreshToken, 'Please pass in a refresh token');
+
+      return {
+        issuer,
+        redirectUrl,
+        clientId,
+        clientSecret,
+        refreshToken,
+        scopes,
+        additionalParameters,
+        serviceConfiguration,
+        clientAuthMethod,
+        dangerouslyAllowInsecureHttpRequests,
+        customHeaders,
+        skipAccessTokenExpirationDate,
+      };
+    }
+  );
+
+  return RNAppAuth.refreshMany(refreshSpecs);
+};
+
+export const addAccount = (
+  {
+    issuer,
+    redirectUrl,
+    clientId,
+    clientSecret,
+    scopes,
+    additionalParameters,
+    serviceConfiguration,
+    clientAuthMethod = 'basic',
+    dangerouslyAllowInsecureHttpRequests = false,
+    customHeaders,
+  },
+  {
+    accountId,
+    accessToken,
+    accessTokenExpirationDate,
+    accessTokenExpirationTime,
+    idToken,
+    refreshToken,
+    tokenType,
+  }
+) => {
+  validateAndroid('addAccount');
+  validateIssuerOrServiceConfigurationEndpoints(issuer, serviceConfiguration);
+  validateClientId(clientId);
+  validateRedirectUrl(redirectUrl);
+  validateHeaders(customHeaders);
+  invariant(typeof accountId === 'string', 'Please pass in an accountId');
+  invariant(accessToken, 'Please pass in an access token');
+  invariant(refreshToken, 'Please pass in a refresh token');
+
+  const tokens = {
+    accessToken,
+    accessTokenExpirationTime:
+      accessTokenExpirationTime ||
+      (accessTokenExpirationDate ? Date.parse(accessTokenExpirationDate) : null),
+    idToken,
+    refreshToken,
+    tokenType,
+  };
+
+  return RNAppAuth.addAccount(
+    accountId,
+    issuer,
+    redirectUrl,
+    clientId,
+    clientSecret,
+    scopes,
+    additionalParameters,
+    serviceConfiguration,
+    clientAuthMethod,
+    dangerouslyAllowInsecureHttpRequests,
+    customHeaders,
+    tokens
+  );
+};
+
+export const switchAccount = accountId => {
+  validateAndroid('switchAccount');
+  invariant(typeof accountId === 'string', 'Please pass in an accountId');
+
+  return RNAppAuth.switchAccount(accountId);
+};
+
+export const onAccountTokensRefreshed = listener => {
+  validateAndroid('onAccountTokensRefreshed');
+  invariant(typeof listener === 'function', 'Please pass in a listener function');
+
+  return DeviceEventEmitter.addListener('RNAppAuthAccountTokensRefreshed', listener);
+};
+
+export const removeAccount = accountId => {
+  validateAndroid('removeAccount');
+  invariant(typeof accountId === 'string', 'Please pass in an accountId');
+
+  return RNAppAuth.removeAccount(accountId);
+};
+
+export const enableSharedAuthState = () => {
+  validateAndroid('enableSharedAuthState');
+
+  return RNAppAuth.enableSharedAuthState();
+};
+
+export const getUserInfo = async (
+  { issuer, serviceConfiguration, dangerouslyAllowInsecureHttpRequests = false, customHeaders },
+  { accessToken, idToken }
+) => {
+  validateAndroid('getUserInfo');
+  invariant(
+    typeof issuer === 'string' ||
+      (serviceConfiguration && typeof serviceConfiguration.userInfoEndpoint === 'string'),
+    'Config error: you must provide either an issuer or a userinfo endpoint'
+  );
+  validateHeaders(customHeaders);
+  invariant(accessToken, 'Please pass in an access token');
+
+  const userInfo = await RNAppAuth.getUserInfo(
+    issuer,
+    serviceConfiguration,
+    accessToken,
+    idToken,
+    dangerouslyAllowInsecureHttpRequests,
+    customHeaders
+  );
+  return JSON.parse(userInfo);
+};
+
+export const introspect = async (
+  {
+    issuer,
+    clientId,
+    clientSecret,
+    serviceConfiguration,
+    clientAuthMethod = 'basic',
+    dangerouslyAllowInsecureHttpRequests = false,
+    customHeaders,
+  },
+  { token, tokenTypeHint }
+) => {
+  validateAndroid('introspect');
+  invariant(
+    typeof issuer === 'string' ||
+      (serviceConfiguration && typeof serviceConfiguration.introspectionEndpoint === 'string'),
+    'Config error: you must provide either an issuer or an introspection endpoint'
+  );
+  validateClientId(clientId);
+  validateHeaders(customHeaders);
+  invariant(token, 'Please include the token to introspect');
+
+  const introspection = await RNAppAuth.introspect(
+    issuer,
+    clientId,
+    clientSecret,
+    serviceConfiguration,
+    clientAuthMethod,
+    dangerouslyAllowInsecureHttpRequests,
+    customHeaders,
+    token,
+    tokenTypeHint
+  );
+  return JSON.parse(introspection);
+};
+
+let nextFetchStreamId = 0;
+
+export const authenticatedFetch = async (
+  accountId,
+  url,
+  { method = 'GET', headers, body, onChunk } = {}
+) => {
+  validateAndroid('authenticatedFetch');
+  invariant(typeof accountId === 'string', 'Please pass in an accountId');
+  invariant(typeof url === 'string', 'Please pass in a url');
+
+  const options = { method };
+  if (headers) options.headers = headers;
+  if (body !== undefined) options.body = body;
+  if (!onChunk) {
+    return RNAppAuth.authenticatedFetch(accountId, url, options);
+  }
+
+  const streamId = String(nextFetchStreamId++);
+  options.streamId = streamId;
+  const subscription = DeviceEventEmitter.addListener('RNAppAuthFetchChunk', event => {
+    if (event.streamId === streamId) onChunk(event.chunk);
+  });
+  try {
+    return await RNAppAuth.authenticatedFetch(accountId, url, options);
+  } finally {
+    subscription.remove();
+  }
+};
+
 export const revoke = async (
   { clientId, issuer, serviceConfiguration },
   { tokenToRevoke, sendClientId = false }
@@ -1,12 +1,33 @@
-import { authorize, refresh } from './';
+import {
+  authorize,
+  refresh,
+  refreshMany,
+  addAccount,
+  switchAccount,
+  onAccountTokensRefreshed,
+  removeAccount,
+  getUserInfo,
+  authenticatedFetch,
+} from './';
 
 jest.mock('react-native', () => ({
   NativeModules: {
     RNAppAuth: {
       authorize: jest.fn(),
       refresh: jest.fn(),
+      refreshMany: jest.fn(),
+      addAccount: jest.fn(),
+      switchAccount: jest.fn(),
+      removeAccount: jest.fn(),
+      enableSharedAuthState: jest.fn(),
+      getUserInfo: jest.fn(),
+      introspect: jest.fn(),
+      authenticatedFetch: jest.fn(),
     },
   },
+  DeviceEventEmitter: {
+    addListener: jest.fn(),
+  },
   Platform: {
     OS: 'ios',
   },
@@ -168,7 +189,10 @@ describe('AppAuth', () => {
             config.usePKCE,
             config.clientAuthMethod,
             false,
-            config.customHeaders
+            config.customHeaders,
+            false,
+            false,
+            false
           );
         });
 
@@ -185,7 +209,10 @@ describe('AppAuth', () => {
             config.usePKCE,
             config.clientAuthMethod,
             false,
-            config.customHeaders
+            config.customHeaders,
+            false,
+            false,
+            false
           );
         });
 
@@ -202,7 +229,73 @@ describe('AppAuth', () => {
             config.usePKCE,
             config.clientAuthMethod,
             true,
-            config.customHeaders
+            config.customHeaders,
+            false,
+            false,
+            false
+          );
+        });
+      });
+      describe('skipAccessTokenExpirationDate parameter', () => {
+        it('calls the native wrapper with passed value `true`', () => {
+          authorize({ ...config, skipAccessTokenExpirationDate: true });
+          expect(mockAuthorize).toHaveBeenCalledWith(
+            config.issuer,
+            config.redirectUrl,
+            config.clientId,
+            config.clientSecret,
+            config.scopes,
+            config.additionalParameters,
+            config.serviceConfiguration,
+            config.usePKCE,
+            config.clientAuthMethod,
+            false,
+            config.customHeaders,
+            true,
+            false,
+            false
+          );
+        });
+      });
+      describe('preconnectTokenEndpoint parameter', () => {
+        it('calls the native wrapper with passed value `true`', () => {
+          authorize({ ...config, preconnectTokenEndpoint: true });
+          expect(mockAuthorize).toHaveBeenCalledWith(
+            config.issuer,
+            config.redirectUrl,
+            config.clientId,
+            config.clientSecret,
+            config.scopes,
+            config.additionalParameters,
+            config.serviceConfiguration,
+            config.usePKCE,
+            config.clientAuthMethod,
+            false,
+            config.customHeaders,
+            false,
+            true,
+            false
+          );
+        });
+      });
+      describe('usePAR parameter', () => {
+        it('calls the native wrapper with passed value `true`', () => {
+          authorize({ ...config, usePAR: true });
+          expect(mockAuthorize).toHaveBeenCalledWith(
+            config.issuer,
+            config.redirectUrl,
+            config.clientId,
+            config.clientSecret,
+            config.scopes,
+            config.additionalParameters,
+            config.serviceConfiguration,
+            config.usePKCE,
+            config.clientAuthMethod,
+            false,
+            config.customHeaders,
+            false,
+            false,
+            true
           );
         });
       });
@@ -223,7 +316,10 @@ describe('AppAuth', () => {
             config.usePKCE,
             config.clientAuthMethod,
             false,
-            customHeaders
+            customHeaders,
+            false,
+            false,
+            false
           );
         });
       });
@@ -316,7 +412,8 @@ describe('AppAuth', () => {
             config.serviceConfiguration,
             config.clientAuthMethod,
             false,
-            config.customHeaders
+            config.customHeaders,
+            false
           );
         });
 
@@ -336,7 +433,8 @@ describe('AppAuth', () => {
             config.serviceConfiguration,
             config.clientAuthMethod,
             false,
-            config.customHeaders
+            config.customHeaders,
+            false
           );
         });
 
@@ -356,7 +454,30 @@ describe('AppAuth', () => {
             config.serviceConfiguration,
             config.clientAuthMethod,
             true,
-            config.customHeaders
+            config.customHeaders,
+            false
+          );
+        });
+      });
+      describe('skipAccessTokenExpirationDate parameter', () => {
+        it('calls the native wrapper with passed value `true`', () => {
+          refresh(
+            { ...config, skipAccessTokenExpirationDate: true },
+            { refreshToken: 'such-token' }
+          );
+          expect(mockRefresh).toHaveBeenCalledWith(
+            config.issuer,
+            config.redirectUrl,
+            config.clientId,
+            config.clientSecret,
+            'such-token',
+            config.scopes,
+            config.additionalParameters,
+            config.serviceConfiguration,
+            config.clientAuthMethod,
+            false,
+            config.customHeaders,
+            true
           );
         });
       });
@@ -377,7 +498,10 @@ describe('AppAuth', () => {
             config.usePKCE,
             config.clientAuthMethod,
             false,
-            customHeaders
+            customHeaders,
+            false,
+            false,
+            false
           );
         });
       });
@@ -455,4 +579,372 @@ describe('AppAuth', () => {
       });
     });
   });
+
+  describe('refreshMany', () => {
+    let mockRefreshMany;
+
+    beforeAll(() => {
+      mockRefreshMany = require('react-native').NativeModules.RNAppAuth.refreshMany;
+    });
+
+    beforeEach(() => {
+      mockRefreshMany.mockReset();
+    });
+
+    it('throws an error on iOS', () => {
+      expect(() => {
+        refreshMany([{ config, refreshToken: 'such-token' }]);
+      }).toThrow('refreshMany is only supported on Android');
+    });
+
+    describe('Android-specific', () => {
+      beforeEach(() => {
+        require('react-native').Platform.OS = 'android';
+      });
+
+      afterEach(() => {
+        require('react-native').Platform.OS = 'ios';
+      });
+
+      it('throws an error when a request has no refreshToken', () => {
+        expect(() => {
+          refreshMany([{ config, refreshToken: 'such-token' }, { config }]);
+        }).toThrow('Please pass in a refresh token');
+      });
+
+      it('calls the native wrapper with one spec per request', () => {
+        refreshMany([
+          { config, refreshToken: 'such-token' },
+          { config: { ...config, clientId: 'other-clientId' }, refreshToken: 'other-token' },
+        ]);
+        const spec = {
+          issuer: config.issuer,
+          redirectUrl: config.redirectUrl,
+          clientId: config.clientId,
+          clientSecret: config.clientSecret,
+          refreshToken: 'such-token',
+          scopes: config.scopes,
+          additionalParameters: config.additionalParameters,
+          serviceConfiguration: config.serviceConfiguration,
+          clientAuthMethod: config.clientAuthMethod,
+          dangerouslyAllowInsecureHttpRequests: false,
+          customHeaders: config.customHeaders,
+          skipAccessTokenExpirationDate: false,
+        };
+        expect(mockRefreshMany).toHaveBeenCalledWith([
+          spec,
+          { ...spec, clientId: 'other-clientId', refreshToken: 'other-token' },
+        ]);
+      });
+    });
+  });
+
+  describe('accounts', () => {
+    const tokens = {
+      accountId: 'such-account',
+      accessToken: 'such-access-token',
+      accessTokenExpirationDate: '2019-01-31T13:45:00Z',
+      idToken: 'such-id-token',
+      refreshToken: 'such-refresh-token',
+      tokenType: 'Bearer',
+    };
+    let mockAddAccount;
+    let mockSwitchAccount;
+    let mockRemoveAccount;
+
+    beforeAll(() => {
+      mockAddAccount = require('react-native').NativeModules.RNAppAuth.addAccount;
+      mockSwitchAccount = require('react-native').NativeModules.RNAppAuth.switchAccount;
+      mockRemoveAccount = require('react-native').NativeModules.RNAppAuth.removeAccount;
+    });
+
+    beforeEach(() => {
+      mockAddAccount.mockReset();
+      mockSwitchAccount.mockReset();
+      mockRemoveAccount.mockReset();
+    });
+
+    it('throws an error on iOS', () => {
+      expect(() => {
+        switchAccount('such-account');
+      }).toThrow('switchAccount is only supported on Android');
+    });
+
+    describe('Android-specific', () => {
+      beforeEach(() => {
+        require('react-native').Platform.OS = 'android';
+      });
+
+      afterEach(() => {
+        require('react-native').Platform.OS = 'ios';
+      });
+
+      it('throws an error when no refreshToken is passed in', () => {
+        expect(() => {
+          addAccount(config, { ...tokens, refreshToken: undefined });
+        }).toThrow('Please pass in a refresh token');
+      });
+
+      it('calls the native wrapper with the expiration date converted to epoch millis', () => {
+        addAccount(config, tokens);
+        expect(mockAddAccount).toHaveBeenCalledWith(
+          'such-account',
+          config.issuer,
+          config.redirectUrl,
+          config.clientId,
+          config.clientSecret,
+          config.scopes,
+          config.additionalParameters,
+          config.serviceConfiguration,
+          config.clientAuthMethod,
+          false,
+          config.customHeaders,
+          {
+            accessToken: 'such-access-token',
+            accessTokenExpirationTime: Date.parse('2019-01-31T13:45:00Z'),
+            idToken: 'such-id-token',
+            refreshToken: 'such-refresh-token',
+            tokenType: 'Bearer',
+          }
+        );
+      });
+
+      it('calls the native wrapper when switching and removing accounts', () => {
+        switchAccount('such-account');
+        removeAccount('such-account');
+        expect(mockSwitchAccount).toHaveBeenCalledWith('such-account');
+        expect(mockRemoveAccount).toHaveBeenCalledWith('such-account');
+      });
+
+      it('subscribes to natively refreshed account tokens', () => {
+        const mockAddListener = require('react-native').DeviceEventEmitter.addListener;
+        const listener = jest.fn();
+        mockAddListener.mockReset();
+        onAccountTokensRefreshed(listener);
+        expect(mockAddListener).toHaveBeenCalledWith('RNAppAuthAccountTokensRefreshed', listener);
+      });
+
+      it('throws an error when no listener is passed in', () => {
+        expect(() => {
+          onAccountTokensRefreshed();
+        }).toThrow('Please pass in a listener function');
+      });
+    });
+  });
+
+  describe('authenticatedFetch', () => {
+    let mockAuthenticatedFetch;
+    let mockAddListener;
+
+    beforeAll(() => {
+      mockAuthenticatedFetch = require('react-native').NativeModules.RNAppAuth.authenticatedFetch;
+      mockAddListener = require('react-native').DeviceEventEmitter.addListener;
+    });
+
+    beforeEach(() => {
+      mockAuthenticatedFetch.mockReset();
+      mockAddListener.mockReset();
+    });
+
+    it('throws an error on iOS', async () => {
+      await expect(authenticatedFetch('such-account', 'https://api.example.com')).rejects.toThrow(
+        'authenticatedFetch is only supported on Android'
+      );
+    });
+
+    describe('Android-specific', () => {
+      beforeEach(() => {
+        require('react-native').Platform.OS = 'android';
+      });
+
+      afterEach(() => {
+        require('react-native').Platform.OS = 'ios';
+      });
+
+      it('calls the native wrapper with the request options', async () => {
+        mockAuthenticatedFetch.mockReturnValue(Promise.resolve({ status: 200 }));
+        const response = await authenticatedFetch('such-account', 'https://api.example.com', {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: '{}',
+        });
+        expect(response).toEqual({ status: 200 });
+        expect(mockAuthenticatedFetch).toHaveBeenCalledWith(
+          'such-account',
+          'https://api.example.com',
+          { method: 'POST', headers: { 'Content-Type': 'application/json' }, body: '{}' }
+        );
+        expect(mockAddListener).not.toHaveBeenCalled();
+      });
+
+      it('delivers streamed chunks for its own request only', async () => {
+        const subscription = { remove: jest.fn() };
+        mockAddListener.mockReturnValue(subscription);
+        mockAuthenticatedFetch.mockImplementation((accountId, url, options) => {
+          const listener = mockAddListener.mock.calls[0][1];
+          listener({ streamId: options.streamId, chunk: 'such-' });
+          listener({ streamId: 'other', chunk: 'ignored' });
+          listener({ streamId: options.streamId, chunk: 'chunk' });
+          return Promise.resolve({ status: 200, body: null });
+        });
+        const chunks = [];
+
+        await authenticatedFetch('such-account', 'https://api.example.com', {
+          onChunk: chunk => chunks.push(chunk),
+        });
+        expect(mockAddListener).toHaveBeenCalledWith('RNAppAuthFetchChunk', expect.any(Function));
+        expect(chunks).toEqual(['such-', 'chunk']);
+        expect(subscription.remove).toHaveBeenCalled();
+      });
+    });
+  });
+
+  describe('getUserInfo', () => {
+    let mockGetUserInfo;
+
+    beforeAll(() => {
+      mockGetUserInfo = require('react-native').NativeModules.RNAppAuth.getUserInfo;
+    });
+
+    beforeEach(() => {
+      mockGetUserInfo.mockReset();
+    });
+
+    it('throws an error on iOS', async () => {
+      await expect(getUserInfo(config, { accessToken: 'such-access-token' })).rejects.toThrow(
+        'getUserInfo is only supported on Android'
+      );
+    });
+
+    describe('Android-specific', () => {
+      beforeEach(() => {
+        require('react-native').Platform.OS = 'android';
+      });
+
+      afterEach(() => {
+        require('react-native').Platform.OS = 'ios';
+      });
+
+      it('throws an error when no access token is passed in', async () => {
+        await expect(getUserInfo(config, {})).rejects.toThrow('Please pass in an access token');
+      });
+
+      it('throws an error when neither issuer nor userInfoEndpoint are defined', async () => {
+        await expect(
+          getUserInfo(
+            { ...config, issuer: undefined, serviceConfiguration: undefined },
+            { accessToken: 'such-access-token' }
+          )
+        ).rejects.toThrow('Config error: you must provide either an issuer or a userinfo endpoint');
+      });
+
+      it('calls the native wrapper and parses the claims', async () => {
+        mockGetUserInfo.mockReturnValue(Promise.resolve('{"sub":"such-subject"}'));
+        const userInfo = await getUserInfo(config, {
+          accessToken: 'such-access-token',
+          idToken: 'such-id-token',
+        });
+        expect(userInfo).toEqual({ sub: 'such-subject' });
+        expect(mockGetUserInfo).toHaveBeenCalledWith(
+          config.issuer,
+          config.serviceConfiguration,
+          'such-access-token',
+          'such-id-token',
+          false,
+          config.customHeaders
+        );
+      });
+    });
+  });
+
+  describe('introspect', () => {
+    let mockIntrospect;
+
+    beforeAll(() => {
+      mockIntrospect = require('react-native').NativeModules.RNAppAuth.introspect;
+    });
+
+    beforeEach(() => {
+      mockIntrospect.mockReset();
+    });
+
+    it('throws an error on iOS', async () => {
+      await expect(introspect(config, { token: 'such-token' })).rejects.toThrow(
+        'introspect is only supported on Android'
+      );
+    });
+
+    describe('Android-specific', () => {
+      beforeEach(() => {
+        require('react-native').Platform.OS = 'android';
+      });
+
+      afterEach(() => {
+        require('react-native').Platform.OS = 'ios';
+      });
+
+      it('throws an error when no token is passed in', async () => {
+        await expect(introspect(config, {})).rejects.toThrow(
+          'Please include the token to introspect'
+        );
+      });
+
+      it('throws an error when neither issuer nor introspectionEndpoint are defined', async () => {
+        await expect(
+          introspect(
+            { ...config, issuer: undefined, serviceConfiguration: undefined },
+            { token: 'such-token' }
+          )
+        ).rejects.toThrow(
+          'Config error: you must provide either an issuer or an introspection endpoint'
+        );
+      });
+
+      it('calls the native wrapper and parses the result', async () => {
+        mockIntrospect.mockReturnValue(Promise.resolve('{"active":true}'));
+        const result = await introspect(config, {
+          token: 'such-token',
+          tokenTypeHint: 'access_token',
+        });
+        expect(result).toEqual({ active: true });
+        expect(mockIntrospect).toHaveBeenCalledWith(
+          config.issuer,
+          config.clientId,
+          config.clientSecret,
+          config.serviceConfiguration,
+          config.clientAuthMethod,
+          false,
+          config.customHeaders,
+          'such-token',
+          'access_token'
+        );
+      });
+    });
+  });
+
+  describe('enableSharedAuthState', () => {
+    let mockEnableSharedAuthState;
+
+    beforeAll(() => {
+      mockEnableSharedAuthState = require('react-native').NativeModules.RNAppAuth
+        .enableSharedAuthState;
+    });
+
+    beforeEach(() => {
+      mockEnableSharedAuthState.mockReset();
+    });
+
+    it('throws an error on iOS', () => {
+      expect(() => {
+        enableSharedAuthState();
+      }).toThrow('enableSharedAuthState is only supported on Android');
+    });
+
+    it('calls the native wrapper on Android', () => {
+      require('react-native').Platform.OS = 'android';
+      enableSharedAuthState();
+      require('react-native').Platform.OS = 'ios';
+      expect(mockEnableSharedAuthState).toHaveBeenCalledWith();
+    });
+  });
 });